@@ -1,9 +1,7 @@
 package com.vibez.config;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
-import com.vibez.model.User;
-import com.vibez.repository.UserRepository;
+import com.vibez.service.UserIdentityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -18,7 +16,10 @@ import org.springframework.stereotype.Component;
 public class AuthChannelInterceptor implements ChannelInterceptor {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private FirebaseTokenVerifier firebaseTokenVerifier;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -30,9 +31,9 @@ public class AuthChannelInterceptor implements ChannelInterceptor {
             if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
                 String token = authorizationHeader.substring(7);
                 try {
-                    FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
+                    FirebaseToken decodedToken = firebaseTokenVerifier.verify(token);
                     String email = decodedToken.getEmail();
-                    User user = userRepository.findByEmail(email).orElse(null);
+                    UserPrincipal user = userIdentityService.findPrincipalByEmail(email).orElse(null);
 
                     if (user != null) {
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
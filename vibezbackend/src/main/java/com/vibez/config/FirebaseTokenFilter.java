@@ -1,9 +1,7 @@
 package com.vibez.config;
 
-import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseToken;
-import com.vibez.model.User;
-import com.vibez.repository.UserRepository;
+import com.vibez.service.UserIdentityService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,7 +17,10 @@ import java.io.IOException;
 public class FirebaseTokenFilter extends OncePerRequestFilter {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private FirebaseTokenVerifier firebaseTokenVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -35,7 +36,7 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
         String token = authorizationHeader.substring(7);
         FirebaseToken decodedToken;
         try {
-            decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
+            decodedToken = firebaseTokenVerifier.verify(token);
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Invalid or expired token");
@@ -44,7 +45,7 @@ public class FirebaseTokenFilter extends OncePerRequestFilter {
 
         String email = decodedToken.getEmail();
 
-        User user = userRepository.findByEmail(email).orElse(null);
+        UserPrincipal user = userIdentityService.findPrincipalByEmail(email).orElse(null);
 
         if (user == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -0,0 +1,107 @@
+package com.vibez.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies Firebase ID tokens once and reuses the decoded claims until the token's {@code exp}.
+ * Shared by the HTTP filter and the STOMP interceptor. Cache keys are SHA-256 digests, so raw
+ * bearer tokens are never held in memory longer than the request that carried them.
+ */
+@Component
+public class FirebaseTokenVerifier {
+
+    private final Cache<String, FirebaseToken> verifiedTokens;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer verifyTimer;
+
+    public FirebaseTokenVerifier(MeterRegistry meterRegistry,
+                                 @Value("${vibez.auth.token-cache-size:20000}") long maxSize) {
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, FirebaseToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, FirebaseToken token, long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(Math.max(0, secondsUntilExpiry(token)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, FirebaseToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, FirebaseToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("vibez.auth.token.cache")
+                .tag("result", "hit")
+                .description("ID tokens served from the verified-token cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("vibez.auth.token.cache")
+                .tag("result", "miss")
+                .description("ID tokens that required signature verification")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("vibez.auth.token.verify")
+                .description("Firebase ID token signature verification time")
+                .register(meterRegistry);
+    }
+
+    public FirebaseToken verify(String idToken) throws FirebaseAuthException {
+        String key = digest(idToken);
+        FirebaseToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        Timer.Sample sample = Timer.start();
+        FirebaseToken decoded;
+        try {
+            decoded = FirebaseAuth.getInstance().verifyIdToken(idToken);
+        } finally {
+            sample.stop(verifyTimer);
+        }
+
+        if (secondsUntilExpiry(decoded) > 0) {
+            verifiedTokens.put(key, decoded);
+        }
+        return decoded;
+    }
+
+    private static long secondsUntilExpiry(FirebaseToken token) {
+        Object exp = token.getClaims().get("exp");
+        if (!(exp instanceof Number number)) {
+            return 0;
+        }
+        return number.longValue() - System.currentTimeMillis() / 1000;
+    }
+
+    private static String digest(String idToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(idToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
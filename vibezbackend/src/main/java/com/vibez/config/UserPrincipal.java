@@ -0,0 +1,41 @@
+package com.vibez.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Authenticated identity kept in the security context. Holds only what request handling needs,
+ * so resolving a token never loads the {@code User} entity.
+ */
+public class UserPrincipal implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final Long id;
+    private final String username;
+    private final String email;
+
+    public UserPrincipal(Long id, String username, String email) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+    }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+
+    @Override
+    public String getUsername() { return username; }
+
+    @Override
+    public String getPassword() { return null; }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() { return AUTHORITIES; }
+}
@@ -1,5 +1,6 @@
 package com.vibez.controller;
 
+import com.vibez.config.UserPrincipal;
 import com.vibez.dto.ChatMessageDto;
 import com.vibez.dto.ChatRoomDto;
 import com.vibez.model.ChatMessage;
@@ -111,6 +112,9 @@ public class ChatRestController {
         if (userDetails == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Brak autoryzacji");
         }
+        if (userDetails instanceof UserPrincipal principal) {
+            return userRepository.getReferenceById(principal.getId());
+        }
         String username = userDetails.getUsername();
         if (username == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Nieprawidłowy token");
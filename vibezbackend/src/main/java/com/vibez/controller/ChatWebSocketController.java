@@ -1,5 +1,6 @@
 package com.vibez.controller;
 
+import com.vibez.config.UserPrincipal;
 import com.vibez.dto.ChatMessageDto;
 import com.vibez.model.ChatMessage;
 import com.vibez.model.User;
@@ -10,6 +11,7 @@ import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -82,6 +84,11 @@ public class ChatWebSocketController {
         if (principal == null || principal.getName() == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Brak autoryzacji");
         }
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return userRepository.findById(userPrincipal.getId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nie znaleziono użytkownika: " + principal.getName()));
+        }
         String username = principal.getName();
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nie znaleziono użytkownika: " + username));
@@ -1,5 +1,7 @@
 package com.vibez.controller;
 
+import com.vibez.dto.LikeResultDto;
+import com.vibez.dto.SliceDto;
 import com.vibez.dto.UpdateCommentRequest;
 import com.vibez.model.Comment;
 import com.vibez.model.Reel;
@@ -20,6 +22,8 @@ import java.util.Set;
 @RequestMapping("/api/comments")
 public class CommentController {
 
+    private static final int MAX_COMMENTS_PAGE_SIZE = 100;
+
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final ReelRepository reelRepository;
@@ -32,6 +36,16 @@ public class CommentController {
         this.commentService = commentService;
     }
 
+    @GetMapping
+    public ResponseEntity<SliceDto<Comment>> getComments(
+            @RequestParam Long reelId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_COMMENTS_PAGE_SIZE));
+        return ResponseEntity.ok(commentService.getTopLevelComments(reelId, Math.max(page, 0), pageSize));
+    }
+
     @PostMapping
     public ResponseEntity<Comment> addComment(
             @RequestParam String text,
@@ -84,22 +98,20 @@ public class CommentController {
         return ResponseEntity.ok(updatedComment);
     }
     @PostMapping("/{commentId}/like")
-    public ResponseEntity<Comment> likeComment(@PathVariable Long commentId, @RequestParam String username) {
+    public ResponseEntity<LikeResultDto> likeComment(@PathVariable Long commentId, @RequestParam String username) {
         try {
-            Comment likedComment = commentService.likeComment(commentId, username);
-            return ResponseEntity.ok(likedComment);
+            LikeResultDto result = commentService.likeComment(commentId, username);
+            return ResponseEntity.ok(result);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
-        } catch (IllegalStateException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
     @DeleteMapping("/{commentId}/like")
-    public ResponseEntity<Comment> unlikeComment(@PathVariable Long commentId, @RequestParam String username) {
+    public ResponseEntity<LikeResultDto> unlikeComment(@PathVariable Long commentId, @RequestParam String username) {
         try {
-            Comment unlikedComment = commentService.unlikeComment(commentId, username);
-            return ResponseEntity.ok(unlikedComment);
+            LikeResultDto result = commentService.unlikeComment(commentId, username);
+            return ResponseEntity.ok(result);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -1,5 +1,6 @@
 package com.vibez.controller;
 
+import com.vibez.config.UserPrincipal;
 import com.vibez.dto.InAppNotificationDto;
 import com.vibez.model.User;
 import com.vibez.repository.UserRepository;
@@ -67,6 +68,9 @@ public class InAppNotificationController {
         if (userDetails == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Brak autoryzacji");
         }
+        if (userDetails instanceof UserPrincipal principal) {
+            return userRepository.getReferenceById(principal.getId());
+        }
 
         String username = userDetails.getUsername();
         if (username == null) {
@@ -1,53 +1,71 @@
 package com.vibez.controller;
 
+import com.vibez.dto.LikeResultDto;
+import com.vibez.dto.CursorPage;
+import com.vibez.dto.FeedReelDto;
+import com.vibez.dto.ProcessingStatusDto;
 import com.vibez.model.Reel;
 import com.vibez.model.ReelPreview;
 import com.vibez.model.Tag;
 import com.vibez.model.User;
+import com.vibez.model.types.ProcessingStatus;
 import com.vibez.repository.ReelPreviewRepository;
 import com.vibez.repository.ReelRepository;
 import com.vibez.repository.UserRepository;
 import com.vibez.service.ReelService;
 import com.vibez.service.ImageStorageService;
-import com.vibez.service.VideoStorageService;
+import com.vibez.service.VideoIngestionService;
 import com.vibez.service.ReelPreviewService;
 import com.vibez.service.RecommendationService;
+import com.vibez.service.SearchService;
 import com.vibez.service.TagService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/reels")
 public class ReelController {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+
     private final ReelRepository reelRepository;
     private final UserRepository userRepository;
-    private final VideoStorageService videoStorageService;
+    private final VideoIngestionService videoIngestionService;
     private final ImageStorageService imageStorageService;
     private final ReelService reelService;
     private final TagService tagService;
     private final ReelPreviewService reelPreviewService;
     private final RecommendationService recommendationService;
+    private final SearchService searchService;
 
     public ReelController(ReelRepository reelRepository, UserRepository userRepository,
-                          VideoStorageService videoStorageService, ImageStorageService imageStorageService,
+                          VideoIngestionService videoIngestionService, ImageStorageService imageStorageService,
                           ReelService reelService, TagService tagService, ReelPreviewService reelPreviewService,
-                          RecommendationService recommendationService) {
+                          RecommendationService recommendationService, SearchService searchService) {
         this.reelRepository = reelRepository;
         this.userRepository = userRepository;
-        this.videoStorageService = videoStorageService;
+        this.videoIngestionService = videoIngestionService;
         this.imageStorageService = imageStorageService;
         this.reelService = reelService;
         this.tagService = tagService;
         this.reelPreviewService = reelPreviewService;
         this.recommendationService = recommendationService;
+        this.searchService = searchService;
     }
 
     @GetMapping
@@ -80,45 +98,81 @@ public class ReelController {
             return ResponseEntity.badRequest().build();
         }
 
-        VideoStorageService.VideoUploadResult uploadResult = videoStorageService.uploadAndConvertVideo(videoFile);
-        String videoUrl = videoStorageService.buildPublicUrl(uploadResult.videoFileName);
+        // Images are processed and uploaded concurrently with each other and with the video work below.
+        CompletableFuture<ImageStorageService.StoredImage> thumbnailUpload = thumbnailFile != null && !thumbnailFile.isEmpty()
+                ? imageStorageService.uploadImageAsync(thumbnailFile)
+                : CompletableFuture.completedFuture(null);
+        List<CompletableFuture<ImageStorageService.StoredImage>> frameUploads = Stream.of(previewFrame0, previewFrame1,
+                        previewFrame2, previewFrame3, previewFrame4, previewFrame5)
+                .filter(frame -> frame != null && !frame.isEmpty())
+                .map(imageStorageService::uploadImageAsync)
+                .collect(Collectors.toList());
+        boolean hasClientFrames = !frameUploads.isEmpty();
+
+        // Faststart MP4s stream straight to the bucket and are hashed on the way; anything else is staged,
+        // and the ingestion job hashes it before deciding to transcode.
+        boolean staged = videoIngestionService.requiresStaging(videoFile);
+        Path stagedVideo = staged ? videoIngestionService.stage(videoFile) : null;
+        VideoIngestionService.UploadedVideo uploadedVideo = staged ? null : videoIngestionService.upload(videoFile);
 
-        String thumbnailUrl = null;
-        if (thumbnailFile != null && !thumbnailFile.isEmpty()) {
-            thumbnailUrl = imageStorageService.uploadFile(thumbnailFile);
+        try {
+            CompletableFuture.allOf(Stream.concat(Stream.of(thumbnailUpload), frameUploads.stream())
+                    .toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (stagedVideo != null) {
+                videoIngestionService.discard(stagedVideo);
+            }
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
         }
+        ImageStorageService.StoredImage thumbnail = thumbnailUpload.join();
+
+        // Tags are upserted only once the uploads went through, so a failed upload leaves none behind.
         Set<Tag> tagSet = tagService.findOrCreateTags(tags);
 
         Reel newReel = new Reel();
         newReel.setUser(userOptional.get());
-        newReel.setVideoUrl(videoUrl);
-        newReel.setThumbnailUrl(thumbnailUrl);
+        if (thumbnail != null) {
+            newReel.setThumbnailUrl(thumbnail.url);
+            newReel.setThumbnailVariants(thumbnail.variants);
+        }
         newReel.setDescription(description);
         newReel.setAuthor(author);
         newReel.setSongTitle(songTitle);
         newReel.setGenre(genre);
         newReel.setTags(tagSet);
+        newReel.setProcessingStatus(ProcessingStatus.PENDING);
 
         Reel savedReel = reelRepository.save(newReel);
+        searchService.indexReel(savedReel.getId());
 
-        List<String> previewFrameUrls = new ArrayList<>();
-        MultipartFile[] previewFrames = {previewFrame0, previewFrame1, previewFrame2,
-                previewFrame3, previewFrame4, previewFrame5};
-
-        for (MultipartFile frame : previewFrames) {
-            if (frame != null && !frame.isEmpty()) {
-                String frameUrl = imageStorageService.uploadFile(frame);
-                previewFrameUrls.add(frameUrl);
+        if (staged) {
+            try {
+                videoIngestionService.submit(savedReel, stagedVideo, videoFile.getOriginalFilename(), !hasClientFrames);
+            } catch (TaskRejectedException e) {
+                log.warn("Video ingestion queue is full, rejecting reel upload from {}", username);
+                reelRepository.delete(savedReel);
+                videoIngestionService.discard(stagedVideo);
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(videoIngestionService.estimateRetryAfterSeconds()))
+                        .build();
             }
+        } else {
+            videoIngestionService.submitUploaded(savedReel, uploadedVideo, !hasClientFrames);
         }
 
-        if (!previewFrameUrls.isEmpty()) {
+        if (hasClientFrames) {
+            List<String> previewFrameUrls = frameUploads.stream()
+                    .map(upload -> upload.join().url)
+                    .collect(Collectors.toList());
             reelPreviewService.createPreview(savedReel, previewFrameUrls);
         }
 
-        log.info("Reel created successfully with ID: {}", savedReel.getId());
+        log.info("Reel {} accepted, video processing queued", savedReel.getId());
 
-        return ResponseEntity.ok(savedReel);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(savedReel);
     }
 
     @GetMapping("/user/{username:.+}")
@@ -143,25 +197,32 @@ public class ReelController {
     }
 
     @PostMapping("/{reelId}/like")
-    public ResponseEntity<Reel> likeReel(@PathVariable Long reelId, @RequestParam String username) {
+    public ResponseEntity<LikeResultDto> likeReel(@PathVariable Long reelId, @RequestParam String username) {
         try {
-            Reel likedReel = reelService.likeReel(reelId, username);
-            return ResponseEntity.ok(likedReel);
+            LikeResultDto result = reelService.likeReel(reelId, username);
+            return ResponseEntity.ok(result);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @DeleteMapping("/{reelId}/like")
-    public ResponseEntity<Reel> unlikeReel(@PathVariable Long reelId, @RequestParam String username) {
+    public ResponseEntity<LikeResultDto> unlikeReel(@PathVariable Long reelId, @RequestParam String username) {
         try {
-            Reel unlikedReel = reelService.unlikeReel(reelId, username);
-            return ResponseEntity.ok(unlikedReel);
+            LikeResultDto result = reelService.unlikeReel(reelId, username);
+            return ResponseEntity.ok(result);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @GetMapping("/{reelId}/processing-status")
+    public ResponseEntity<ProcessingStatusDto> getProcessingStatus(@PathVariable Long reelId) {
+        return reelRepository.findById(reelId)
+                .map(reel -> ResponseEntity.ok(new ProcessingStatusDto(reel)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{reelId}/preview")
     public ResponseEntity<ReelPreview> getReelPreview(@PathVariable Long reelId) {
         Optional<ReelPreview> preview = reelPreviewService.getPreviewByReelId(reelId);
@@ -182,28 +243,39 @@ public class ReelController {
     }
 
     @GetMapping("/feed")
-    public ResponseEntity<List<Reel>> getFeed(
+    public ResponseEntity<CursorPage<FeedReelDto>> getFeed(
             @RequestParam(required = false) String username,
-            @RequestParam(defaultValue = "FOR_YOU") String type
+            @RequestParam(defaultValue = "FOR_YOU") String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
     ) {
-        if ("FOLLOWING".equalsIgnoreCase(type)) {
-            if (username == null) return ResponseEntity.status(401).build();
-            return ResponseEntity.ok(reelService.getFollowingReels(username));
-        }
-        else if ("POPULAR".equalsIgnoreCase(type)) {
-            return ResponseEntity.ok(reelService.getPopularReels());
-        }
-        else {
-            if (username != null && !username.isEmpty()) {
-                return ResponseEntity.ok(recommendationService.getRecommendedReelsForUser(username));
-            } else {
-                return ResponseEntity.ok(reelService.getAllReelsWithTopLevelComments());
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        try {
+            if ("FOLLOWING".equalsIgnoreCase(type)) {
+                if (username == null) return ResponseEntity.status(401).build();
+                return ResponseEntity.ok(reelService.getFollowingReels(username, cursor, pageSize));
+            }
+            else if ("POPULAR".equalsIgnoreCase(type)) {
+                return ResponseEntity.ok(reelService.getPopularReels(cursor, pageSize));
+            }
+            else {
+                if (username != null && !username.isEmpty()) {
+                    return ResponseEntity.ok(recommendationService.getRecommendedReelsForUser(username, cursor, pageSize));
+                } else {
+                    return ResponseEntity.ok(reelService.getLatestReels(cursor, pageSize));
+                }
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
     @PostMapping("/{reelId}/view")
     public ResponseEntity<Void> incrementViewCount(@PathVariable Long reelId) {
-        reelService.incrementViewCount(reelId);
-        return ResponseEntity.ok().build();
+        try {
+            reelService.incrementViewCount(reelId);
+            return ResponseEntity.ok().build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.vibez.controller;
 
-import com.vibez.model.Reel;
-import com.vibez.model.User;
+import com.vibez.dto.FeedReelDto;
+import com.vibez.dto.SearchHitDto;
+import com.vibez.dto.SliceDto;
+import com.vibez.dto.UserSimpleDto;
 import com.vibez.service.SearchService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +14,9 @@ import java.util.List;
 @RequestMapping("/api/search")
 public class SearchController {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_AUTOCOMPLETE_RESULTS = 20;
+
     private final SearchService searchService;
 
     public SearchController(SearchService searchService) {
@@ -19,22 +24,46 @@ public class SearchController {
     }
 
     @GetMapping("/users")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String query) {
+    public ResponseEntity<List<UserSimpleDto>> searchUsers(@RequestParam String query) {
         return ResponseEntity.ok(searchService.searchUsers(query));
     }
 
+    @GetMapping("/users/autocomplete")
+    public ResponseEntity<List<UserSimpleDto>> autocompleteUsers(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        int resultLimit = Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_RESULTS));
+        return ResponseEntity.ok(searchService.autocompleteUsers(prefix, resultLimit));
+    }
+
     @GetMapping("/reels")
-    public ResponseEntity<List<Reel>> searchReels(@RequestParam String query) {
-        return ResponseEntity.ok(searchService.searchReelsByDescription(query));
+    public ResponseEntity<SliceDto<FeedReelDto>> searchReels(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "30") int size
+    ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        return ResponseEntity.ok(searchService.searchReels(query, Math.max(page, 0), pageSize));
     }
 
     @GetMapping("/tags")
-    public ResponseEntity<List<Reel>> searchReelsByTag(@RequestParam String query) {
-        return ResponseEntity.ok(searchService.searchReelsByTag(query));
+    public ResponseEntity<SliceDto<FeedReelDto>> searchReelsByTag(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "30") int size
+    ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        return ResponseEntity.ok(searchService.searchReelsByTag(query, Math.max(page, 0), pageSize));
     }
+
     @GetMapping("/top")
-    public ResponseEntity<List<User>> searchTop(@RequestParam String query) {
-        //TODO: Something more sophisticated in the future
-        return ResponseEntity.ok(searchService.searchUsers(query));
+    public ResponseEntity<SliceDto<SearchHitDto>> searchTop(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "30") int size
+    ) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        return ResponseEntity.ok(searchService.searchTop(query, Math.max(page, 0), pageSize));
     }
 }
\ No newline at end of file
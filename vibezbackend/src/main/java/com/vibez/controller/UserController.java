@@ -1,12 +1,19 @@
 package com.vibez.controller;
 
+import com.vibez.config.UserPrincipal;
+import com.vibez.dto.ConfirmProfilePictureRequest;
+import com.vibez.dto.ProfilePictureUploadDto;
 import com.vibez.dto.SyncUserRequest;
+import com.vibez.dto.UserSimpleDto;
 import com.vibez.model.User;
 import com.vibez.repository.DeviceTokenRepository;
 import com.vibez.service.ImageStorageService;
+import com.vibez.service.SearchService;
+import com.vibez.service.UserIdentityService;
 import com.vibez.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -14,13 +21,10 @@ import org.springframework.web.bind.annotation.*;
 import com.vibez.model.DeviceToken;
 import java.security.Principal;
 
-import org.springframework.web.multipart.MultipartFile;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
@@ -28,17 +32,81 @@ public class UserController {
     private final UserRepository userRepository;
     private final ImageStorageService imageStorageService;
     private final DeviceTokenRepository deviceTokenRepository;
+    private final UserIdentityService userIdentityService;
+    private final SearchService searchService;
 
-    public UserController(UserRepository userRepository, ImageStorageService imageStorageService,  DeviceTokenRepository deviceTokenRepository) {
+    public UserController(UserRepository userRepository, ImageStorageService imageStorageService,  DeviceTokenRepository deviceTokenRepository,
+                          UserIdentityService userIdentityService, SearchService searchService) {
         this.userRepository = userRepository;
         this.imageStorageService = imageStorageService;
         this.deviceTokenRepository = deviceTokenRepository;
+        this.userIdentityService = userIdentityService;
+        this.searchService = searchService;
     }
 
-    @GetMapping("/generate-profile-picture-url")
-    public ResponseEntity<String> generateProfilePictureUploadUrl(@RequestParam String fileName, @RequestParam String contentType) {
-        String uploadUrl = imageStorageService.generatePresignedUrl(fileName, contentType);
-        return ResponseEntity.ok(uploadUrl);
+    /**
+     * First step of a profile picture change: the client PUTs the file straight to the returned URL
+     * (with the same Content-Type) and then calls {@code /profile-picture/confirm} with the object key.
+     */
+    @PostMapping("/{username}/profile-picture/upload-url")
+    public ResponseEntity<ProfilePictureUploadDto> createProfilePictureUploadUrl(
+            @PathVariable String username,
+            @RequestParam String fileName,
+            @RequestParam String contentType) {
+
+        if (!contentType.startsWith("image/")) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<User> user = userRepository.findByUsername(username);
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String objectKey = imageStorageService.newProfilePictureKey(user.get().getId(), fileName);
+        String uploadUrl = imageStorageService.generatePresignedUrl(objectKey, contentType);
+        return ResponseEntity.ok(new ProfilePictureUploadDto(uploadUrl, objectKey));
+    }
+
+    @PostMapping("/{username}/profile-picture/confirm")
+    public ResponseEntity<?> confirmProfilePicture(
+            @PathVariable String username,
+            @RequestBody ConfirmProfilePictureRequest request) {
+
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String objectKey = request.getObjectKey();
+        if (objectKey == null || objectKey.contains("..")
+                || !objectKey.startsWith(imageStorageService.profilePicturePrefix(user.getId()))) {
+            return ResponseEntity.badRequest().body("Invalid object key");
+        }
+
+        try {
+            imageStorageService.verifyUploadedImage(objectKey);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        String uploadedUrl = imageStorageService.buildPublicUrl(objectKey);
+        user.setProfilePictureUrl(uploadedUrl);
+        user.setProfilePictureVariants(null);
+        User savedUser = userRepository.save(user);
+
+        // The raw upload is shown right away; renditions are built off the request thread and replace it.
+        Long userId = savedUser.getId();
+        imageStorageService.storeUploadedImageAsync(objectKey)
+                .thenAccept(image -> {
+                    if (userRepository.replaceProfilePicture(userId, uploadedUrl, image.url, image.variants) > 0) {
+                        imageStorageService.deleteObject(objectKey);
+                    }
+                })
+                .exceptionally(e -> {
+                    log.warn("Could not create renditions for profile picture {}: {}", objectKey, e.getMessage());
+                    return null;
+                });
+        return ResponseEntity.ok(savedUser);
     }
 
     @PostMapping("/sync")
@@ -66,8 +134,7 @@ public class UserController {
     public ResponseEntity<?> updateUser(
             @PathVariable String username,
             @RequestParam("username") String newUsername,
-            @RequestParam("bio") String bio,
-            @RequestParam(value = "profilePicture", required = false) MultipartFile profilePicture) {
+            @RequestParam("bio") String bio) {
 
         try {
             User user = userRepository.findByUsername(username)
@@ -88,32 +155,11 @@ public class UserController {
 
             user.setBio(bio);
 
-            if (profilePicture != null && !profilePicture.isEmpty()) {
-                String fileName = System.currentTimeMillis() + "_" + profilePicture.getOriginalFilename();
-                String contentType = profilePicture.getContentType();
-
-                String presignedUrl = imageStorageService.generatePresignedUrl(fileName, contentType);
-
-                HttpURLConnection connection = (HttpURLConnection) new URL(presignedUrl).openConnection();
-                connection.setDoOutput(true);
-                connection.setRequestMethod("PUT");
-                connection.setRequestProperty("Content-Type", contentType);
-
-                try (OutputStream out = connection.getOutputStream()) {
-                    out.write(profilePicture.getBytes());
-                }
-
-                int responseCode = connection.getResponseCode();
-                if (responseCode != 200) {
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .body("Failed to upload profile picture");
-                }
-
-                String publicUrl = imageStorageService.buildPublicUrl(fileName);
-                user.setProfilePictureUrl(publicUrl);
-            }
-
             User updatedUser = userRepository.save(user);
+            if (!username.equals(newUsername)) {
+                userIdentityService.evict(username, updatedUser.getEmail());
+                searchService.indexReelsOfUser(updatedUser.getId());
+            }
             return ResponseEntity.ok(updatedUser);
 
         } catch (Exception e) {
@@ -125,10 +171,10 @@ public class UserController {
     @PostMapping("/me/register-device-token")
     @Transactional
     public ResponseEntity<?> registerDeviceToken(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal UserPrincipal principal,
             @RequestBody String tokenString) {
 
-        if (user == null) {
+        if (principal == null) {
             return ResponseEntity.status(401).body("Brak autoryzacji");
         }
 
@@ -140,7 +186,7 @@ public class UserController {
             if (deviceTokenRepository.findByToken(tokenString).isPresent()) {
                 return ResponseEntity.ok("Token już zarejestrowany");
             }
-            DeviceToken deviceToken = new DeviceToken(tokenString, user);
+            DeviceToken deviceToken = new DeviceToken(tokenString, userIdentityService.getUserReference(principal));
             deviceTokenRepository.save(deviceToken);
 
             return ResponseEntity.ok("Token zarejestrowany pomyślnie");
@@ -150,11 +196,10 @@ public class UserController {
         }
     }
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam String query) {
+    public ResponseEntity<List<UserSimpleDto>> searchUsers(@RequestParam String query) {
         if (query == null || query.trim().length() < 2) {
             return ResponseEntity.ok(List.of());
         }
-        List<User> users = userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query);
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok(searchService.searchUsers(query));
     }
 }
\ No newline at end of file
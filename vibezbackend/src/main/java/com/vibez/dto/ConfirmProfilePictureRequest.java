@@ -0,0 +1,13 @@
+package com.vibez.dto;
+
+public class ConfirmProfilePictureRequest {
+    private String objectKey;
+
+    public String getObjectKey() {
+        return objectKey;
+    }
+
+    public void setObjectKey(String objectKey) {
+        this.objectKey = objectKey;
+    }
+}
@@ -0,0 +1,79 @@
+package com.vibez.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.vibez.model.ImageRenditions;
+import com.vibez.repository.FeedReelView;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class FeedReelDto {
+    private Long id;
+    private String videoUrl;
+    private String manifestUrl;
+    private String thumbnailUrl;
+    private Map<String, String> thumbnailRenditions;
+    private String description;
+    private String author;
+    private String songTitle;
+    private String genre;
+    private int likeCount;
+    private long viewCount;
+    private long commentCount;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+    private UserSimpleDto user;
+    private List<String> tags;
+
+    public FeedReelDto(FeedReelView view) {
+        this.id = view.getId();
+        this.videoUrl = view.getVideoUrl();
+        this.manifestUrl = view.getManifestUrl();
+        this.thumbnailUrl = view.getThumbnailUrl();
+        this.thumbnailRenditions = ImageRenditions.resolve(view.getThumbnailUrl(), view.getThumbnailVariants());
+        this.description = view.getDescription();
+        this.author = view.getAuthor();
+        this.songTitle = view.getSongTitle();
+        this.genre = view.getGenre();
+        this.likeCount = view.getLikeCount();
+        this.viewCount = view.getViewCount();
+        this.commentCount = view.getCommentCount();
+        this.createdAt = view.getCreatedAt();
+        this.user = new UserSimpleDto(view.getUsername(), view.getProfilePictureUrl(), view.getProfilePictureVariants());
+        this.tags = view.getTagNames() != null ? Arrays.asList(view.getTagNames().split(",")) : List.of();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getVideoUrl() { return videoUrl; }
+    public void setVideoUrl(String videoUrl) { this.videoUrl = videoUrl; }
+    public String getManifestUrl() { return manifestUrl; }
+    public void setManifestUrl(String manifestUrl) { this.manifestUrl = manifestUrl; }
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+    public Map<String, String> getThumbnailRenditions() { return thumbnailRenditions; }
+    public void setThumbnailRenditions(Map<String, String> thumbnailRenditions) { this.thumbnailRenditions = thumbnailRenditions; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public String getAuthor() { return author; }
+    public void setAuthor(String author) { this.author = author; }
+    public String getSongTitle() { return songTitle; }
+    public void setSongTitle(String songTitle) { this.songTitle = songTitle; }
+    public String getGenre() { return genre; }
+    public void setGenre(String genre) { this.genre = genre; }
+    public int getLikeCount() { return likeCount; }
+    public void setLikeCount(int likeCount) { this.likeCount = likeCount; }
+    public long getViewCount() { return viewCount; }
+    public void setViewCount(long viewCount) { this.viewCount = viewCount; }
+    public long getCommentCount() { return commentCount; }
+    public void setCommentCount(long commentCount) { this.commentCount = commentCount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public UserSimpleDto getUser() { return user; }
+    public void setUser(UserSimpleDto user) { this.user = user; }
+    public String getUsername() { return user != null ? user.getUsername() : null; }
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+}
@@ -0,0 +1,19 @@
+package com.vibez.dto;
+
+public class LikeResultDto {
+    private Long id;
+    private int likeCount;
+    private boolean liked;
+
+    public LikeResultDto(Long id, int likeCount, boolean liked) {
+        this.id = id;
+        this.likeCount = likeCount;
+        this.liked = liked;
+    }
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public int getLikeCount() { return likeCount; }
+    public void setLikeCount(int likeCount) { this.likeCount = likeCount; }
+    public boolean isLiked() { return liked; }
+    public void setLiked(boolean liked) { this.liked = liked; }
+}
@@ -0,0 +1,30 @@
+package com.vibez.dto;
+
+import com.vibez.model.Reel;
+import com.vibez.model.types.ProcessingStatus;
+
+public class ProcessingStatusDto {
+    private Long reelId;
+    private ProcessingStatus status;
+    private String videoUrl;
+    private String manifestUrl;
+    private String error;
+
+    public ProcessingStatusDto(Reel reel) {
+        this.reelId = reel.getId();
+        this.status = reel.getProcessingStatus();
+        this.videoUrl = reel.getVideoUrl();
+        this.manifestUrl = reel.getManifestUrl();
+        this.error = reel.getProcessingError();
+    }
+    public Long getReelId() { return reelId; }
+    public void setReelId(Long reelId) { this.reelId = reelId; }
+    public ProcessingStatus getStatus() { return status; }
+    public void setStatus(ProcessingStatus status) { this.status = status; }
+    public String getVideoUrl() { return videoUrl; }
+    public void setVideoUrl(String videoUrl) { this.videoUrl = videoUrl; }
+    public String getManifestUrl() { return manifestUrl; }
+    public void setManifestUrl(String manifestUrl) { this.manifestUrl = manifestUrl; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
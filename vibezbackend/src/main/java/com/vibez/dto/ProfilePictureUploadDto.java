@@ -0,0 +1,15 @@
+package com.vibez.dto;
+
+public class ProfilePictureUploadDto {
+    private String uploadUrl;
+    private String objectKey;
+
+    public ProfilePictureUploadDto(String uploadUrl, String objectKey) {
+        this.uploadUrl = uploadUrl;
+        this.objectKey = objectKey;
+    }
+    public String getUploadUrl() { return uploadUrl; }
+    public void setUploadUrl(String uploadUrl) { this.uploadUrl = uploadUrl; }
+    public String getObjectKey() { return objectKey; }
+    public void setObjectKey(String objectKey) { this.objectKey = objectKey; }
+}
@@ -2,9 +2,12 @@ package com.vibez.dto;
 
 import com.vibez.model.Reel;
 
+import java.util.Map;
+
 public class ReelSimpleDto {
     private Long id;
     private String thumbnailUrl;
+    private Map<String, String> thumbnailRenditions = Map.of();
     private String author;
     private String songTitle;
     private String videoUrl;
@@ -14,6 +17,7 @@ public class ReelSimpleDto {
         if (reel != null) {
             this.id = reel.getId();
             this.thumbnailUrl = reel.getThumbnailUrl();
+            this.thumbnailRenditions = reel.getThumbnailRenditions();
             this.author = reel.getAuthor();
             this.songTitle = reel.getSongTitle();
             this.videoUrl = reel.getVideoUrl();
@@ -24,6 +28,8 @@ public class ReelSimpleDto {
     public void setId(Long id) { this.id = id; }
     public String getThumbnailUrl() { return thumbnailUrl; }
     public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+    public Map<String, String> getThumbnailRenditions() { return thumbnailRenditions; }
+    public void setThumbnailRenditions(Map<String, String> thumbnailRenditions) { this.thumbnailRenditions = thumbnailRenditions; }
     public String getAuthor() { return author; }
     public void setAuthor(String author) { this.author = author; }
     public String getSongTitle() { return songTitle; }
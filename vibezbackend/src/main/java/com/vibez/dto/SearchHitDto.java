@@ -0,0 +1,35 @@
+package com.vibez.dto;
+
+public class SearchHitDto {
+    public enum Type { USER, REEL }
+
+    private Type type;
+    private double score;
+    private UserSimpleDto user;
+    private FeedReelDto reel;
+
+    public static SearchHitDto user(UserSimpleDto user, double score) {
+        SearchHitDto hit = new SearchHitDto();
+        hit.type = Type.USER;
+        hit.user = user;
+        hit.score = score;
+        return hit;
+    }
+
+    public static SearchHitDto reel(FeedReelDto reel, double score) {
+        SearchHitDto hit = new SearchHitDto();
+        hit.type = Type.REEL;
+        hit.reel = reel;
+        hit.score = score;
+        return hit;
+    }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+    public UserSimpleDto getUser() { return user; }
+    public void setUser(UserSimpleDto user) { this.user = user; }
+    public FeedReelDto getReel() { return reel; }
+    public void setReel(FeedReelDto reel) { this.reel = reel; }
+}
@@ -0,0 +1,22 @@
+package com.vibez.dto;
+
+import java.util.List;
+
+public class SliceDto<T> {
+    private List<T> items;
+    private int page;
+    private boolean hasNext;
+
+    public SliceDto(List<T> items, int page, boolean hasNext) {
+        this.items = items;
+        this.page = page;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
@@ -1,19 +1,36 @@
 package com.vibez.dto;
 
+import com.vibez.model.ImageRenditions;
 import com.vibez.model.User;
 
+import java.util.Map;
+
 public class UserSimpleDto {
     private String username;
     private String profilePictureUrl;
+    private Map<String, String> profilePictureRenditions = Map.of();
 
     public UserSimpleDto(User user) {
         if (user != null) {
             this.username = user.getUsername();
             this.profilePictureUrl = user.getProfilePictureUrl();
+            this.profilePictureRenditions = user.getProfilePictureRenditions();
         }
     }
+
+    public UserSimpleDto(String username, String profilePictureUrl) {
+        this.username = username;
+        this.profilePictureUrl = profilePictureUrl;
+    }
+
+    public UserSimpleDto(String username, String profilePictureUrl, String profilePictureVariants) {
+        this(username, profilePictureUrl);
+        this.profilePictureRenditions = ImageRenditions.resolve(profilePictureUrl, profilePictureVariants);
+    }
     public String getUsername() { return username; }
     public void setUsername(String username) { this.username = username; }
     public String getProfilePictureUrl() { return profilePictureUrl; }
     public void setProfilePictureUrl(String profilePictureUrl) { this.profilePictureUrl = profilePictureUrl; }
+    public Map<String, String> getProfilePictureRenditions() { return profilePictureRenditions; }
+    public void setProfilePictureRenditions(Map<String, String> profilePictureRenditions) { this.profilePictureRenditions = profilePictureRenditions; }
 }
\ No newline at end of file
@@ -11,7 +11,9 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_reel_parent", columnList = "reel_id, parent_comment_id")
+})
 public class Comment {
 
     @Id
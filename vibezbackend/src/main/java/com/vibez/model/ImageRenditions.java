@@ -0,0 +1,31 @@
+package com.vibez.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves the stored rendition list of an uploaded image (e.g. {@code "64.jpg,256.jpg,720.jpg"})
+ * into URLs. Renditions sit next to the original under the same prefix, so only the file names are persisted.
+ */
+public final class ImageRenditions {
+
+    private ImageRenditions() {
+    }
+
+    /**
+     * @return rendition file name to URL, e.g. {@code "256.webp" -> ".../256.webp"}; empty for images
+     * uploaded before renditions existed
+     */
+    public static Map<String, String> resolve(String originalUrl, String variants) {
+        if (originalUrl == null || variants == null || variants.isBlank()) {
+            return Collections.emptyMap();
+        }
+        String prefix = originalUrl.substring(0, originalUrl.lastIndexOf('/') + 1);
+        Map<String, String> renditions = new LinkedHashMap<>();
+        for (String variant : variants.split(",")) {
+            renditions.put(variant, prefix + variant);
+        }
+        return renditions;
+    }
+}
@@ -4,16 +4,21 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.vibez.model.types.ProcessingStatus;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Entity
-@Table(name = "reels")
+@Table(name = "reels", indexes = {
+        @Index(name = "idx_reels_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_reels_like_count", columnList = "like_count, id")
+})
 public class Reel {
 
     @Id
@@ -21,7 +26,13 @@ public class Reel {
     private Long id;
 
     private String videoUrl;
+    private String manifestUrl;
     private String thumbnailUrl;
+
+    @Column(length = 100)
+    @JsonIgnore
+    private String thumbnailVariants;
+
     private String description;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -60,6 +71,19 @@ public class Reel {
 
     private long viewCount = 0;
 
+    // Rows created before ingestion became asynchronous have no status and are treated as READY.
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ProcessingStatus processingStatus;
+
+    @Column(length = 500)
+    @JsonIgnore
+    private String processingError;
+
+    // Last processing status change; lets any node tell a stalled job from one still running elsewhere.
+    @JsonIgnore
+    private LocalDateTime processingUpdatedAt;
+
     @Column(nullable = false, updatable = false)
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
@@ -68,8 +92,15 @@ public class Reel {
     public void setId(Long id) { this.id = id; }
     public String getVideoUrl() { return videoUrl; }
     public void setVideoUrl(String videoUrl) { this.videoUrl = videoUrl; }
+    public String getManifestUrl() { return manifestUrl; }
+    public void setManifestUrl(String manifestUrl) { this.manifestUrl = manifestUrl; }
     public String getThumbnailUrl() { return thumbnailUrl; }
     public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+    public String getThumbnailVariants() { return thumbnailVariants; }
+    public void setThumbnailVariants(String thumbnailVariants) { this.thumbnailVariants = thumbnailVariants; }
+    public Map<String, String> getThumbnailRenditions() {
+        return ImageRenditions.resolve(thumbnailUrl, thumbnailVariants);
+    }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     public User getUser() { return user; }
@@ -105,4 +136,15 @@ public class Reel {
         }
     }
     public void incrementViewCount() { this.viewCount++; }
+    public ProcessingStatus getProcessingStatus() {
+        return processingStatus != null ? processingStatus : ProcessingStatus.READY;
+    }
+    public void setProcessingStatus(ProcessingStatus processingStatus) {
+        this.processingStatus = processingStatus;
+        this.processingUpdatedAt = LocalDateTime.now();
+    }
+    public String getProcessingError() { return processingError; }
+    public void setProcessingError(String processingError) { this.processingError = processingError; }
+    public LocalDateTime getProcessingUpdatedAt() { return processingUpdatedAt; }
+    public void setProcessingUpdatedAt(LocalDateTime processingUpdatedAt) { this.processingUpdatedAt = processingUpdatedAt; }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.vibez.model;
+
+import com.vibez.model.types.StoredObjectKind;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Content-addressed index of uploaded media: maps the SHA-256 of the bytes a client sent
+ * to the object key the processed result was stored under.
+ */
+@Entity
+@Table(name = "stored_objects",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"kind", "content_hash"}))
+public class StoredObject {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StoredObjectKind kind;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(length = 500)
+    private String manifestKey;
+
+    @Column(length = 100)
+    private String variants;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public StoredObject() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public StoredObjectKind getKind() { return kind; }
+    public void setKind(StoredObjectKind kind) { this.kind = kind; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getObjectKey() { return objectKey; }
+    public void setObjectKey(String objectKey) { this.objectKey = objectKey; }
+
+    public String getManifestKey() { return manifestKey; }
+    public void setManifestKey(String manifestKey) { this.manifestKey = manifestKey; }
+
+    public String getVariants() { return variants; }
+    public void setVariants(String variants) { this.variants = variants; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -27,6 +27,10 @@ public class User implements UserDetails {
     private String bio;
     private String profilePictureUrl;
 
+    @Column(length = 100)
+    @JsonIgnore
+    private String profilePictureVariants;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonBackReference
     private List<Comment> comments;
@@ -74,6 +78,9 @@ public class User implements UserDetails {
     public void setBio(String bio) {this.bio = bio;}
     public String getProfilePictureUrl() {return profilePictureUrl;}
     public void setProfilePictureUrl(String profilePictureUrl) {this.profilePictureUrl = profilePictureUrl;}
+    public String getProfilePictureVariants() {return profilePictureVariants;}
+    public void setProfilePictureVariants(String profilePictureVariants) {this.profilePictureVariants = profilePictureVariants;}
+    public Map<String, String> getProfilePictureRenditions() {return ImageRenditions.resolve(profilePictureUrl, profilePictureVariants);}
     public Set<Like> getLikes() { return likes; }
     public void setLikes(Set<Like> likes) { this.likes = likes; }
     public Set<CommentLike> getLikedComments() { return likedComments; }
@@ -0,0 +1,62 @@
+package com.vibez.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Entity
+@Table(name = "user_taste_profiles")
+public class UserTasteProfile {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private Map<Long, Double> tagWeights = new HashMap<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private Map<String, Double> genreWeights = new HashMap<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private Set<Long> followedAuthorIds = new HashSet<>();
+
+    @Column(nullable = false)
+    private LocalDateTime decayedAt;
+
+    public UserTasteProfile() {}
+
+    public UserTasteProfile(Long userId) {
+        this.userId = userId;
+        this.decayedAt = LocalDateTime.now();
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Map<Long, Double> getTagWeights() { return tagWeights; }
+    public void setTagWeights(Map<Long, Double> tagWeights) { this.tagWeights = tagWeights; }
+    public Map<String, Double> getGenreWeights() { return genreWeights; }
+    public void setGenreWeights(Map<String, Double> genreWeights) { this.genreWeights = genreWeights; }
+    public Set<Long> getFollowedAuthorIds() { return followedAuthorIds; }
+    public void setFollowedAuthorIds(Set<Long> followedAuthorIds) { this.followedAuthorIds = followedAuthorIds; }
+    public LocalDateTime getDecayedAt() { return decayedAt; }
+    public void setDecayedAt(LocalDateTime decayedAt) { this.decayedAt = decayedAt; }
+
+    public UserTasteProfile copy() {
+        UserTasteProfile copy = new UserTasteProfile(userId);
+        copy.setTagWeights(new HashMap<>(tagWeights));
+        copy.setGenreWeights(new HashMap<>(genreWeights));
+        copy.setFollowedAuthorIds(new HashSet<>(followedAuthorIds));
+        copy.setDecayedAt(decayedAt);
+        return copy;
+    }
+}
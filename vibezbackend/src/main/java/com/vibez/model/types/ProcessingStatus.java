@@ -0,0 +1,8 @@
+package com.vibez.model.types;
+
+public enum ProcessingStatus {
+    PENDING,
+    PROCESSING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.vibez.model.types;
+
+public enum StoredObjectKind {
+    VIDEO,
+    IMAGE
+}
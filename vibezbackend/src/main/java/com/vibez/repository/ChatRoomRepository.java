@@ -14,7 +14,7 @@ import java.util.UUID;
 @Repository
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, UUID> {
 
-    List<ChatRoom> findByParticipants_User_Username(String username);
+    List<ChatRoom> findByParticipants_User_Id(Long userId);
 
     @Query("SELECT cr FROM ChatRoom cr " +
             "WHERE cr.type = com.vibez.model.types.ChatRoomType.PRIVATE " +
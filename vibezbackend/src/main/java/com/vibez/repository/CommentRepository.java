@@ -1,10 +1,24 @@
 package com.vibez.repository;
 
 import com.vibez.model.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-}
 
+    @Query("SELECT c.id FROM Comment c WHERE c.reel.id = :reelId AND c.parentComment IS NULL " +
+            "ORDER BY c.isPinned DESC, c.likeCount DESC, c.id DESC")
+    Slice<Long> findTopLevelIdsByReelId(@Param("reelId") Long reelId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"user", "replies", "replies.user"})
+    List<Comment> findByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,26 @@
+package com.vibez.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model of a reel as shown in the feeds; column aliases of the feed queries map onto these getters.
+ */
+public interface FeedReelView {
+    Long getId();
+    String getVideoUrl();
+    String getManifestUrl();
+    String getThumbnailUrl();
+    String getThumbnailVariants();
+    String getDescription();
+    String getAuthor();
+    String getSongTitle();
+    String getGenre();
+    int getLikeCount();
+    long getViewCount();
+    long getCommentCount();
+    LocalDateTime getCreatedAt();
+    String getUsername();
+    String getProfilePictureUrl();
+    String getProfilePictureVariants();
+    String getTagNames();
+}
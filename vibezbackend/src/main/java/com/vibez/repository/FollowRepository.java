@@ -3,6 +3,8 @@ package com.vibez.repository;
 import com.vibez.model.Follow;
 import com.vibez.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,5 +18,8 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     long countByFollower(User follower);
 
     List<Follow> findByFollower(User follower);
+
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId")
+    List<Long> findFollowingIdsByFollowerId(@Param("followerId") Long followerId);
     List<Follow> findByFollowing(User following);
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.vibez.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Like/unlike as single statements: the like row and the counter change together in one CTE,
+ * so no entity is loaded and concurrent likes cannot lose increments.
+ * Each method returns the new count, or empty when the like row was already in the requested state.
+ */
+@Repository
+public class LikeCounterRepository {
+
+    private static final String LIKE_REEL = """
+            WITH inserted AS (
+                INSERT INTO likes (user_id, reel_id, created_at) VALUES (?, ?, now())
+                ON CONFLICT (user_id, reel_id) DO NOTHING
+                RETURNING reel_id
+            )
+            UPDATE reels SET like_count = like_count + 1
+            WHERE id IN (SELECT reel_id FROM inserted)
+            RETURNING like_count
+            """;
+
+    private static final String UNLIKE_REEL = """
+            WITH deleted AS (
+                DELETE FROM likes WHERE user_id = ? AND reel_id = ?
+                RETURNING reel_id
+            )
+            UPDATE reels SET like_count = GREATEST(like_count - 1, 0)
+            WHERE id IN (SELECT reel_id FROM deleted)
+            RETURNING like_count
+            """;
+
+    private static final String LIKE_COMMENT = """
+            WITH inserted AS (
+                INSERT INTO comment_likes (user_id, comment_id, created_at) VALUES (?, ?, now())
+                ON CONFLICT (user_id, comment_id) DO NOTHING
+                RETURNING comment_id
+            )
+            UPDATE comments SET like_count = like_count + 1
+            WHERE id IN (SELECT comment_id FROM inserted)
+            RETURNING like_count
+            """;
+
+    private static final String UNLIKE_COMMENT = """
+            WITH deleted AS (
+                DELETE FROM comment_likes WHERE user_id = ? AND comment_id = ?
+                RETURNING comment_id
+            )
+            UPDATE comments SET like_count = GREATEST(like_count - 1, 0)
+            WHERE id IN (SELECT comment_id FROM deleted)
+            RETURNING like_count
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LikeCounterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Integer> likeReel(Long userId, Long reelId) {
+        return queryCount(LIKE_REEL, userId, reelId);
+    }
+
+    public Optional<Integer> unlikeReel(Long userId, Long reelId) {
+        return queryCount(UNLIKE_REEL, userId, reelId);
+    }
+
+    public Optional<Integer> likeComment(Long userId, Long commentId) {
+        return queryCount(LIKE_COMMENT, userId, commentId);
+    }
+
+    public Optional<Integer> unlikeComment(Long userId, Long commentId) {
+        return queryCount(UNLIKE_COMMENT, userId, commentId);
+    }
+
+    public Optional<Integer> findReelLikeCount(Long reelId) {
+        return queryCount("SELECT like_count FROM reels WHERE id = ?", reelId);
+    }
+
+    public Optional<Integer> findCommentLikeCount(Long commentId) {
+        return queryCount("SELECT like_count FROM comments WHERE id = ?", commentId);
+    }
+
+    private Optional<Integer> queryCount(String sql, Object... args) {
+        List<Integer> counts = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getInt(1), args);
+        return counts.stream().findFirst();
+    }
+}
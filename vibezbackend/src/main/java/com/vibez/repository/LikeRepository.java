@@ -5,6 +5,8 @@ import com.vibez.model.Reel;
 import com.vibez.model.User;
 import org.springframework.data.jpa.repository.EntityGraph; // 1. IMPORTUJ
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +19,9 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
 
     boolean existsByUserAndReel(User user, Reel reel);
 
+    @Query("SELECT l.reel.id FROM Like l WHERE l.user.id = :userId")
+    List<Long> findReelIdsByUserId(@Param("userId") Long userId);
+
     @EntityGraph(attributePaths = {"reel"})
     List<Like> findByUserOrderByCreatedAtDesc(User user);
 }
\ No newline at end of file
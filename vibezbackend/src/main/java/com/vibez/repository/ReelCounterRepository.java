@@ -0,0 +1,36 @@
+package com.vibez.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counter updates on {@code reels} issued as single SQL statements, without loading the entity.
+ */
+@Repository
+public class ReelCounterRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReelCounterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Applies all deltas in one transaction, so a failed batch leaves no row updated and can be retried whole.
+     */
+    @Transactional
+    public void addViewCounts(List<Map.Entry<Long, Long>> deltas) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE reels SET view_count = view_count + ? WHERE id = ?",
+                deltas,
+                deltas.size(),
+                (ps, delta) -> {
+                    ps.setLong(1, delta.getValue());
+                    ps.setLong(2, delta.getKey());
+                });
+    }
+}
@@ -9,4 +9,6 @@ import java.util.Optional;
 @Repository
 public interface ReelPreviewRepository extends JpaRepository<ReelPreview, Long> {
     Optional<ReelPreview> findByReelId(Long reelId);
+
+    Optional<ReelPreview> findFirstByReel_VideoUrl(String videoUrl);
 }
\ No newline at end of file
@@ -2,15 +2,36 @@ package com.vibez.repository;
 
 import com.vibez.model.Reel;
 import com.vibez.model.User;
+import com.vibez.model.types.ProcessingStatus;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReelRepository extends JpaRepository<Reel, Long> {
 
+    String FEED_SELECT = "SELECT r.id AS \"id\", r.video_url AS \"videoUrl\", r.manifest_url AS \"manifestUrl\", r.thumbnail_url AS \"thumbnailUrl\", " +
+            "r.thumbnail_variants AS \"thumbnailVariants\", " +
+            "r.description AS \"description\", r.author AS \"author\", r.song_title AS \"songTitle\", r.genre AS \"genre\", " +
+            "r.like_count AS \"likeCount\", r.view_count AS \"viewCount\", r.created_at AS \"createdAt\", " +
+            "u.username AS \"username\", u.profile_picture_url AS \"profilePictureUrl\", " +
+            "u.profile_picture_variants AS \"profilePictureVariants\", " +
+            "(SELECT COUNT(*) FROM comments c WHERE c.reel_id = r.id AND c.parent_comment_id IS NULL) AS \"commentCount\", " +
+            "(SELECT string_agg(t.name, ',' ORDER BY t.name) FROM reel_tags rt JOIN tags t ON t.id = rt.tag_id " +
+            "WHERE rt.reel_id = r.id) AS \"tagNames\" " +
+            "FROM reels r JOIN app_users u ON u.id = r.user_id ";
+
+    // Reels still being ingested have no playable video yet; legacy rows have a NULL status and are ready.
+    String READY = "(r.processing_status IS NULL OR r.processing_status = 'READY') ";
+
     @EntityGraph(attributePaths = {
             "user",
             "comments",
@@ -29,26 +50,54 @@ public interface ReelRepository extends JpaRepository<Reel, Long> {
             "tags"})
     List<Reel> findAllByOrderByCreatedAtDesc();
 
-    @EntityGraph(attributePaths = {
-            "user",
-            "comments",
-            "comments.user",
-            "comments.replies",
-            "comments.replies.user",
-            "tags"})
-    List<Reel> findByUserInOrderByIdDesc(List<User> users);
+    @Query(value = FEED_SELECT + "WHERE r.id IN (:ids)", nativeQuery = true)
+    List<FeedReelView> findFeedViewsByIdIn(@Param("ids") Collection<Long> ids);
 
-    @EntityGraph(attributePaths = {
-            "user",
-            "comments",
-            "comments.user",
-            "comments.replies",
-            "comments.replies.user",
-            "tags"})
-    List<Reel> findTop50ByOrderByLikeCountDesc();
+    @Query(value = FEED_SELECT + "WHERE " + READY + "AND r.id < :beforeId ORDER BY r.id DESC LIMIT :limit", nativeQuery = true)
+    List<FeedReelView> findLatestFeed(@Param("beforeId") long beforeId, @Param("limit") int limit);
 
-    List<Reel> findByDescriptionContainingIgnoreCase(String description);
+    @Query(value = FEED_SELECT + "WHERE " + READY + "AND r.user_id IN (:userIds) AND r.id < :beforeId ORDER BY r.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<FeedReelView> findFollowingFeed(@Param("userIds") Collection<Long> userIds,
+                                         @Param("beforeId") long beforeId, @Param("limit") int limit);
 
-    List<Reel> findByTags_NameContainingIgnoreCase(String tagName);
-}
+    @Query(value = FEED_SELECT +
+            "WHERE " + READY + "AND (r.like_count < :likeCount OR (r.like_count = :likeCount AND r.id < :beforeId)) " +
+            "ORDER BY r.like_count DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<FeedReelView> findPopularFeed(@Param("likeCount") int likeCount,
+                                       @Param("beforeId") long beforeId, @Param("limit") int limit);
+
+    @Query("SELECT r.id, r.user.id, r.genre, r.likeCount FROM Reel r " +
+            "WHERE r.processingStatus IS NULL OR r.processingStatus = com.vibez.model.types.ProcessingStatus.READY")
+    List<Object[]> findAllFeatureRows();
 
+    @Query("SELECT r.id, t.id FROM Reel r JOIN r.tags t")
+    List<Object[]> findAllReelTagIds();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reel r SET r.processingStatus = :status, r.processingError = :error, " +
+            "r.processingUpdatedAt = CURRENT_TIMESTAMP WHERE r.id = :id")
+    int updateProcessingStatus(@Param("id") Long id, @Param("status") ProcessingStatus status,
+                               @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reel r SET r.videoUrl = :videoUrl, r.manifestUrl = :manifestUrl, r.processingStatus = com.vibez.model.types.ProcessingStatus.READY, " +
+            "r.processingError = NULL, r.processingUpdatedAt = CURRENT_TIMESTAMP WHERE r.id = :id")
+    int markReady(@Param("id") Long id, @Param("videoUrl") String videoUrl, @Param("manifestUrl") String manifestUrl);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reel r SET r.processingUpdatedAt = CURRENT_TIMESTAMP WHERE r.id IN (:ids)")
+    int touchProcessing(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reel r SET r.processingStatus = com.vibez.model.types.ProcessingStatus.FAILED, r.processingError = :error, " +
+            "r.processingUpdatedAt = CURRENT_TIMESTAMP " +
+            "WHERE r.processingStatus IN (com.vibez.model.types.ProcessingStatus.PENDING, " +
+            "com.vibez.model.types.ProcessingStatus.PROCESSING) " +
+            "AND COALESCE(r.processingUpdatedAt, r.createdAt) < :cutoff")
+    int failStaleProcessing(@Param("error") String error, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,106 @@
+package com.vibez.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Full-text index over reels: a weighted {@code tsvector} column kept up to date by the application
+ * (tag names A, description B, song title and author C, genre and uploader D) behind a GIN index.
+ * The column and index are not mapped on {@link com.vibez.model.Reel}, so Hibernate leaves them alone.
+ */
+@Repository
+public class ReelSearchRepository {
+
+    private static final String VECTOR = """
+            setweight(to_tsvector('simple', coalesce((SELECT string_agg(t.name, ' ') FROM reel_tags rt
+                JOIN tags t ON t.id = rt.tag_id WHERE rt.reel_id = r.id), '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(r.description, '')), 'B') ||
+            setweight(to_tsvector('simple', coalesce(r.song_title, '') || ' ' || coalesce(r.author, '')), 'C') ||
+            setweight(to_tsvector('simple', coalesce(r.genre, '') || ' ' || coalesce(u.username, '')), 'D')
+            """;
+
+    private static final String REFRESH_REEL =
+            "UPDATE reels r SET search_vector = " + VECTOR + "FROM app_users u WHERE u.id = r.user_id AND r.id = ?";
+
+    private static final String REFRESH_USER_REELS =
+            "UPDATE reels r SET search_vector = " + VECTOR + "FROM app_users u WHERE u.id = r.user_id AND r.user_id = ?";
+
+    private static final String BACKFILL =
+            "UPDATE reels r SET search_vector = " + VECTOR + "FROM app_users u WHERE u.id = r.user_id " +
+            "AND r.id IN (SELECT id FROM reels WHERE search_vector IS NULL ORDER BY id LIMIT ?)";
+
+    // Normalization 32 scales the rank into [0, 1) so it can be combined with other signals.
+    private static final String SEARCH = """
+            SELECT r.id, ts_rank_cd(r.search_vector, q, 32) AS rank FROM reels r, to_tsquery('simple', ?) q
+            WHERE r.search_vector @@ q
+              AND (r.processing_status IS NULL OR r.processing_status = 'READY')
+            ORDER BY rank DESC, r.id DESC
+            LIMIT ? OFFSET ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReelSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createIndexIfMissing() {
+        jdbcTemplate.execute("ALTER TABLE reels ADD COLUMN IF NOT EXISTS search_vector tsvector");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_reels_search_vector ON reels USING GIN (search_vector)");
+    }
+
+    /**
+     * Indexes up to {@code batchSize} reels that have no vector yet and returns how many were updated.
+     */
+    public int backfill(int batchSize) {
+        return jdbcTemplate.update(BACKFILL, batchSize);
+    }
+
+    public void refreshReel(Long reelId) {
+        jdbcTemplate.update(REFRESH_REEL, reelId);
+    }
+
+    public void refreshReelsOfUser(Long userId) {
+        jdbcTemplate.update(REFRESH_USER_REELS, userId);
+    }
+
+    public List<String> findLexemes(Long reelId) {
+        return jdbcTemplate.queryForList(
+                "SELECT unnest(tsvector_to_array(search_vector)) FROM reels WHERE id = ?", String.class, reelId);
+    }
+
+    /**
+     * Ids of ready reels matching the {@code to_tsquery} expression, best match first.
+     */
+    public List<Long> search(String tsQuery, int limit, long offset) {
+        return jdbcTemplate.query(SEARCH, (rs, rowNum) -> rs.getLong("id"), tsQuery, limit, offset);
+    }
+
+    /**
+     * Like {@link #search} from the first result, keeping each reel's rank. PostgreSQL cancels the query
+     * after {@code timeoutMs}, so an abandoned lookup does not keep its connection and thread busy.
+     */
+    @Transactional(readOnly = true)
+    public List<ReelMatch> searchRanked(String tsQuery, int limit, long timeoutMs) {
+        jdbcTemplate.queryForObject("SELECT set_config('statement_timeout', ?, true)", String.class,
+                String.valueOf(timeoutMs));
+        return jdbcTemplate.query(SEARCH, (rs, rowNum) -> new ReelMatch(rs.getLong("id"), rs.getDouble("rank")),
+                tsQuery, limit, 0L);
+    }
+
+    public static final class ReelMatch {
+        private final long reelId;
+        private final double rank;
+
+        ReelMatch(long reelId, double rank) {
+            this.reelId = reelId;
+            this.rank = rank;
+        }
+
+        public long getReelId() { return reelId; }
+        public double getRank() { return rank; }
+    }
+}
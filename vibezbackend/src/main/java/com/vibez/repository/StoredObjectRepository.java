@@ -0,0 +1,30 @@
+package com.vibez.repository;
+
+import com.vibez.model.StoredObject;
+import com.vibez.model.types.StoredObjectKind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, Long> {
+
+    Optional<StoredObject> findByKindAndContentHash(StoredObjectKind kind, String contentHash);
+
+    /**
+     * First writer wins: a concurrent upload of the same content keeps the key that was registered first.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stored_objects (kind, content_hash, object_key, manifest_key, variants, created_at) " +
+            "VALUES (:kind, :contentHash, :objectKey, :manifestKey, :variants, now()) " +
+            "ON CONFLICT (kind, content_hash) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("kind") String kind, @Param("contentHash") String contentHash,
+                       @Param("objectKey") String objectKey, @Param("manifestKey") String manifestKey,
+                       @Param("variants") String variants);
+}
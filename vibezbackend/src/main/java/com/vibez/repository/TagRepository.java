@@ -2,12 +2,32 @@ package com.vibez.repository;
 
 import com.vibez.model.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
-    Optional<Tag> findByName(String name);
-}
+    List<Tag> findByNameIn(Collection<String> names);
+
+    /**
+     * Inserts the missing names and returns every tag of the comma-separated list in one statement.
+     * Rows a concurrent transaction committed after this statement started are neither inserted nor returned;
+     * callers look those up again.
+     */
+    @Transactional
+    @Query(value = "WITH input AS (SELECT DISTINCT unnest(string_to_array(:names, ',')) AS name), " +
+            "inserted AS (INSERT INTO tags (name) SELECT name FROM input ON CONFLICT (name) DO NOTHING RETURNING id, name) " +
+            "SELECT id, name FROM inserted " +
+            "UNION ALL " +
+            "SELECT t.id, t.name FROM tags t JOIN input i ON i.name = t.name", nativeQuery = true)
+    List<Tag> upsertAll(@Param("names") String names);
 
+    @Query(value = "SELECT t.id, t.name FROM tags t LEFT JOIN reel_tags rt ON rt.tag_id = t.id " +
+            "GROUP BY t.id, t.name ORDER BY COUNT(rt.reel_id) DESC LIMIT :limit", nativeQuery = true)
+    List<Tag> findMostUsed(@Param("limit") int limit);
+}
@@ -0,0 +1,7 @@
+package com.vibez.repository;
+
+public interface UserIdentityView {
+    Long getId();
+    String getUsername();
+    String getEmail();
+}
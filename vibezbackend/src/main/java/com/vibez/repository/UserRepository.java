@@ -2,9 +2,12 @@ package com.vibez.repository;
 
 import com.vibez.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +15,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
 
-    List<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(String username, String email);
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    Optional<UserIdentityView> findIdentityByEmail(String email);
+
+    /**
+     * Swaps in the processed picture only if the user has not changed it again in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.profilePictureUrl = :newUrl, u.profilePictureVariants = :variants " +
+            "WHERE u.id = :id AND u.profilePictureUrl = :currentUrl")
+    int replaceProfilePicture(@Param("id") Long id, @Param("currentUrl") String currentUrl,
+                              @Param("newUrl") String newUrl, @Param("variants") String variants);
 }
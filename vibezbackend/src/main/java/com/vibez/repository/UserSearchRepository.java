@@ -0,0 +1,100 @@
+package com.vibez.repository;
+
+import com.vibez.dto.UserSimpleDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Username lookups for typeahead. Matching is on {@code lower(username)} only: a trigram GIN index serves
+ * substring matches and a {@code text_pattern_ops} index serves prefixes, including those shorter than a trigram.
+ * Prefix and substring candidates are capped separately before follower counts are computed.
+ */
+@Repository
+public class UserSearchRepository {
+
+    private static final String AUTOCOMPLETE = """
+            WITH candidates AS (
+                (SELECT u.id, u.username, u.profile_picture_url, u.profile_picture_variants, true AS prefix_match
+                 FROM app_users u
+                 WHERE lower(u.username) LIKE ?
+                 ORDER BY lower(u.username)
+                 LIMIT ?)
+                UNION ALL
+                (SELECT u.id, u.username, u.profile_picture_url, u.profile_picture_variants, false AS prefix_match
+                 FROM app_users u
+                 WHERE lower(u.username) LIKE ? AND lower(u.username) NOT LIKE ?
+                 LIMIT ?)
+            )
+            SELECT c.username, c.profile_picture_url, c.profile_picture_variants, c.prefix_match,
+                   (SELECT COUNT(*) FROM follows f WHERE f.following_id = c.id) AS follower_count
+            FROM candidates c
+            ORDER BY c.prefix_match DESC, follower_count DESC, c.username
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createIndexesIfMissing() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_app_users_username_prefix " +
+                "ON app_users (lower(username) text_pattern_ops)");
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_app_users_username_trgm " +
+                "ON app_users USING GIN (lower(username) gin_trgm_ops)");
+    }
+
+    /**
+     * Users whose name contains {@code text}, prefix matches first, then by follower count.
+     *
+     * @param candidates how many prefix and how many substring matches are ranked by followers
+     */
+    public List<UserMatch> findByUsernameFragment(String text, int limit, int candidates) {
+        String escaped = escapeLike(text.toLowerCase(Locale.ROOT));
+        String prefix = escaped + "%";
+        int perKind = Math.max(candidates, limit);
+        return jdbcTemplate.query(AUTOCOMPLETE,
+                (rs, rowNum) -> new UserMatch(
+                        new UserSimpleDto(rs.getString("username"), rs.getString("profile_picture_url"),
+                                rs.getString("profile_picture_variants")),
+                        rs.getBoolean("prefix_match"),
+                        rs.getLong("follower_count")),
+                prefix, perKind, "%" + escaped + "%", prefix, perKind, limit);
+    }
+
+    /**
+     * Like {@link #findByUsernameFragment(String, int, int)}, cancelled by PostgreSQL after {@code timeoutMs}.
+     */
+    @Transactional(readOnly = true)
+    public List<UserMatch> findByUsernameFragment(String text, int limit, int candidates, long timeoutMs) {
+        jdbcTemplate.queryForObject("SELECT set_config('statement_timeout', ?, true)", String.class,
+                String.valueOf(timeoutMs));
+        return findByUsernameFragment(text, limit, candidates);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public static final class UserMatch {
+        private final UserSimpleDto user;
+        private final boolean prefixMatch;
+        private final long followerCount;
+
+        UserMatch(UserSimpleDto user, boolean prefixMatch, long followerCount) {
+            this.user = user;
+            this.prefixMatch = prefixMatch;
+            this.followerCount = followerCount;
+        }
+
+        public UserSimpleDto getUser() { return user; }
+        public boolean isPrefixMatch() { return prefixMatch; }
+        public long getFollowerCount() { return followerCount; }
+    }
+}
@@ -0,0 +1,9 @@
+package com.vibez.repository;
+
+import com.vibez.model.UserTasteProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserTasteProfileRepository extends JpaRepository<UserTasteProfile, Long> {
+}
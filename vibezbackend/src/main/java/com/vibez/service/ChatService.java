@@ -30,6 +30,7 @@ public class ChatService {
     private final UserRepository userRepository;
     private final ReelRepository reelRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final UserIdentityService userIdentityService;
 
     @Autowired
     public ChatService(ChatRoomRepository chatRoomRepository,
@@ -37,18 +38,20 @@ public class ChatService {
                        ChatParticipantRepository chatParticipantRepository,
                        UserRepository userRepository,
                        ReelRepository reelRepository,
-                       SimpMessagingTemplate messagingTemplate) {
+                       SimpMessagingTemplate messagingTemplate,
+                       UserIdentityService userIdentityService) {
         this.chatRoomRepository = chatRoomRepository;
         this.chatMessageRepository = chatMessageRepository;
         this.chatParticipantRepository = chatParticipantRepository;
         this.userRepository = userRepository;
         this.reelRepository = reelRepository;
         this.messagingTemplate = messagingTemplate;
+        this.userIdentityService = userIdentityService;
     }
 
     @Transactional(readOnly = true)
     public List<ChatRoomDto> getChatRoomsForUser(User user) {
-        List<ChatRoom> rooms = chatRoomRepository.findByParticipants_User_Username(user.getUsername());
+        List<ChatRoom> rooms = chatRoomRepository.findByParticipants_User_Id(user.getId());
 
         return rooms.stream()
                 .map(this::toChatRoomDto)
@@ -89,8 +92,9 @@ public class ChatService {
 
         for (String username : participantUsernames) {
             if (!username.equals(creator.getUsername())) {
-                User member = userRepository.findByUsername(username)
+                Long memberId = userIdentityService.findUserId(username)
                         .orElseThrow(() -> new EntityNotFoundException("Participant not found: " + username));
+                User member = userRepository.getReferenceById(memberId);
                 participants.add(new ChatParticipant(member, newChatRoom, ParticipantRole.MEMBER));
             }
         }
@@ -1,5 +1,7 @@
 package com.vibez.service;
 
+import com.vibez.dto.LikeResultDto;
+import com.vibez.dto.SliceDto;
 import com.vibez.model.Comment;
 import com.vibez.model.CommentLike;
 import com.vibez.model.Reel;
@@ -7,14 +9,21 @@ import com.vibez.model.User;
 import com.vibez.repository.ReelRepository;
 import com.vibez.repository.CommentLikeRepository;
 import com.vibez.repository.CommentRepository;
+import com.vibez.repository.LikeCounterRepository;
 import com.vibez.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,62 +33,72 @@ public class CommentService {
     private final UserRepository userRepository;
     private final CommentLikeRepository commentLikeRepository;
     private final ReelRepository reelRepository;
+    private final LikeCounterRepository likeCounterRepository;
+    private final UserIdentityService userIdentityService;
 
-    public CommentService(CommentRepository commentRepository, UserRepository userRepository, CommentLikeRepository commentLikeRepository, ReelRepository reelRepository) {
+    public CommentService(CommentRepository commentRepository, UserRepository userRepository, CommentLikeRepository commentLikeRepository,
+                          ReelRepository reelRepository, LikeCounterRepository likeCounterRepository,
+                          UserIdentityService userIdentityService) {
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.commentLikeRepository = commentLikeRepository;
         this.reelRepository = reelRepository;
+        this.likeCounterRepository = likeCounterRepository;
+        this.userIdentityService = userIdentityService;
     }
 
     @Transactional
-    public Comment likeComment(Long commentId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new EntityNotFoundException("Comment not found: " + commentId));
-
-        if (commentLikeRepository.existsByUserAndComment(user, comment)) {
-            return comment;
-        }
-
-        CommentLike newLike = new CommentLike(user, comment);
+    public LikeResultDto likeComment(Long commentId, String username) {
+        Long userId = userIdentityService.requireUserId(username);
 
+        Optional<Integer> likeCount;
         try {
-            commentLikeRepository.save(newLike);
-            comment.incrementLikeCount();
-            return commentRepository.save(comment);
-
+            likeCount = likeCounterRepository.likeComment(userId, commentId);
         } catch (DataIntegrityViolationException e) {
-            throw new IllegalStateException("Like operation failed due to concurrent modification.", e);
+            throw new EntityNotFoundException("Comment not found: " + commentId);
         }
+
+        int count = likeCount.orElseGet(() -> currentLikeCount(commentId));
+        return new LikeResultDto(commentId, count, true);
     }
 
     @Transactional
-    public Comment unlikeComment(Long commentId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new EntityNotFoundException("Comment not found: " + commentId));
+    public LikeResultDto unlikeComment(Long commentId, String username) {
+        Long userId = userIdentityService.requireUserId(username);
 
-        CommentLike like = commentLikeRepository.findByUserAndComment(user, comment)
+        int count = likeCounterRepository.unlikeComment(userId, commentId)
                 .orElseThrow(() -> new EntityNotFoundException("CommentLike not found"));
+        return new LikeResultDto(commentId, count, false);
+    }
 
-        commentLikeRepository.delete(like);
-        comment.decrementLikeCount();
-        return commentRepository.save(comment);
+    private int currentLikeCount(Long commentId) {
+        return likeCounterRepository.findCommentLikeCount(commentId)
+                .orElseThrow(() -> new EntityNotFoundException("Comment not found: " + commentId));
     }
 
     @Transactional(readOnly = true)
     public Set<Long> getLikedCommentIdsByUsername(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        User user = userIdentityService.getUserReference(username);
 
         List<CommentLike> likedComments = commentLikeRepository.findByUser(user);
         return likedComments.stream()
                 .map(commentLike -> commentLike.getComment().getId())
                 .collect(Collectors.toSet());
     }
+    @Transactional(readOnly = true)
+    public SliceDto<Comment> getTopLevelComments(Long reelId, int page, int size) {
+        Slice<Long> ids = commentRepository.findTopLevelIdsByReelId(reelId, PageRequest.of(page, size));
+
+        Map<Long, Comment> byId = commentRepository.findByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Comment::getId, Function.identity()));
+        List<Comment> comments = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return new SliceDto<>(comments, ids.getNumber(), ids.hasNext());
+    }
+
     @Transactional
     public Comment addComment(String text, Long reelId, String username, Long parentCommentId) {
         User user = userRepository.findByUsername(username)
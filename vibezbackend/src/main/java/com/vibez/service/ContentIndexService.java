@@ -0,0 +1,98 @@
+package com.vibez.service;
+
+import com.vibez.model.StoredObject;
+import com.vibez.model.types.StoredObjectKind;
+import com.vibez.repository.StoredObjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Lets storage services reuse an existing object when the same bytes are uploaded again,
+ * skipping the transcode and the PUT.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentIndexService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StoredObjectRepository storedObjectRepository;
+
+    public String hash(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return hash(in);
+        }
+    }
+
+    public String hash(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return hash(in);
+        }
+    }
+
+    /**
+     * Wraps a stream that is being consumed anyway (e.g. by an upload) so its hash comes without a second read;
+     * {@link #hexDigest} gives the result once the stream is fully read.
+     */
+    public DigestInputStream digesting(InputStream in) {
+        return new DigestInputStream(in, newDigest());
+    }
+
+    public String hexDigest(DigestInputStream in) {
+        return HexFormat.of().formatHex(in.getMessageDigest().digest());
+    }
+
+    private String hash(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public String hash(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    public Optional<StoredObject> find(StoredObjectKind kind, String contentHash) {
+        Optional<StoredObject> existing = storedObjectRepository.findByKindAndContentHash(kind, contentHash);
+        existing.ifPresent(object -> log.info("Reusing stored {} {} for identical upload", kind, object.getObjectKey()));
+        return existing;
+    }
+
+    public void register(StoredObjectKind kind, String contentHash, String objectKey, String manifestKey,
+                         String variants) {
+        if (contentHash == null) {
+            return;
+        }
+        try {
+            storedObjectRepository.insertIfAbsent(kind.name(), contentHash, objectKey, manifestKey, variants);
+        } catch (RuntimeException e) {
+            // The index is an optimisation; a failed insert only means the next identical upload is processed again.
+            log.warn("Could not register {} {} in content index: {}", kind, objectKey, e.getMessage());
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
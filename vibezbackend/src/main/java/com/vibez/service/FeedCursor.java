@@ -0,0 +1,63 @@
+package com.vibez.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a feed: the sort key of the last returned reel plus its id as a tie-breaker.
+ * Feeds whose sort key is computed can also pin the moment it was computed at, so every page scores alike.
+ * Clients only ever echo the encoded form back, so the layout can change without breaking them.
+ */
+public final class FeedCursor {
+
+    private final long sortKey;
+    private final long reelId;
+    private final long snapshotAt;
+
+    public FeedCursor(long sortKey, long reelId) {
+        this(sortKey, reelId, 0);
+    }
+
+    /**
+     * @param snapshotAt epoch millis the sort keys were computed at, or 0 when they do not depend on time
+     */
+    public FeedCursor(long sortKey, long reelId, long snapshotAt) {
+        this.sortKey = sortKey;
+        this.reelId = reelId;
+        this.snapshotAt = snapshotAt;
+    }
+
+    public static FeedCursor start() {
+        return new FeedCursor(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public static FeedCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return start();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 2 && parts.length != 3) {
+                throw new IllegalArgumentException("Unexpected cursor layout");
+            }
+            long snapshotAt = parts.length == 3 ? Long.parseLong(parts[2]) : 0;
+            return new FeedCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), snapshotAt);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid feed cursor: " + cursor, e);
+        }
+    }
+
+    public boolean isStart() {
+        return sortKey == Long.MAX_VALUE && reelId == Long.MAX_VALUE;
+    }
+
+    public String encode() {
+        String raw = snapshotAt == 0 ? sortKey + ":" + reelId : sortKey + ":" + reelId + ":" + snapshotAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getSortKey() { return sortKey; }
+    public long getReelId() { return reelId; }
+    public long getSnapshotAt() { return snapshotAt; }
+}
@@ -0,0 +1,218 @@
+package com.vibez.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.bramp.ffmpeg.FFmpeg;
+import net.bramp.ffmpeg.FFprobe;
+import net.bramp.ffmpeg.ProcessFunction;
+import net.bramp.ffmpeg.RunProcessFunction;
+import net.bramp.ffmpeg.probe.FFmpegProbeResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single home of the ffmpeg/ffprobe binaries. They are located and version-checked once at startup
+ * (reported through the {@code ffmpegToolkit} health indicator) instead of on every conversion, and every
+ * process they start is tracked per thread, so a watchdog can kill an encode that exceeds its timeout
+ * and a cancelled async job takes its process down with it.
+ */
+@Slf4j
+@Component
+public class FfmpegToolkit implements HealthIndicator {
+
+    @Value("${ffmpeg.path:ffmpeg}")
+    private String ffmpegPath;
+
+    @Value("${ffprobe.path:ffprobe}")
+    private String ffprobePath;
+
+    @Value("${vibez.ffmpeg.probe-timeout-seconds:30}")
+    private long probeTimeoutSeconds;
+
+    @Value("${vibez.ffmpeg.encode-timeout-minutes:30}")
+    private long encodeTimeoutMinutes;
+
+    private final Map<Thread, Process> running = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService watchdog =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("FfmpegWatchdog-"));
+    private final ExecutorService jobExecutor;
+    private final Counter killedProcesses;
+
+    private volatile FFmpeg ffmpeg;
+    private volatile FFprobe ffprobe;
+    private volatile String unavailableReason = "not initialised";
+
+    public FfmpegToolkit(@Value("${vibez.ffmpeg.async-threads:2}") int asyncThreads, MeterRegistry meterRegistry) {
+        this.jobExecutor = Executors.newFixedThreadPool(asyncThreads, new CustomizableThreadFactory("FfmpegJob-"));
+        this.killedProcesses = Counter.builder("vibez.ffmpeg.killed")
+                .description("ffmpeg/ffprobe processes killed after a timeout or cancellation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A missing binary does not stop the application; health goes DOWN and video calls fail with an IOException.
+     */
+    @PostConstruct
+    public void initialise() {
+        try {
+            ProcessFunction processFunction = new TrackingProcessFunction();
+            ffmpeg = new FFmpeg(ffmpegPath, processFunction);
+            ffprobe = new FFprobe(ffprobePath, processFunction);
+            unavailableReason = null;
+            log.info("Using {} and {}", ffmpeg.version(), ffprobe.version());
+        } catch (IOException | RuntimeException e) {
+            unavailableReason = e.getMessage();
+            log.error("FFmpeg is not available at {} / {}: {}", ffmpegPath, ffprobePath, e.getMessage());
+        } finally {
+            running.remove(Thread.currentThread());
+        }
+    }
+
+    @Override
+    public Health health() {
+        if (unavailableReason != null) {
+            return Health.down().withDetail("error", unavailableReason).build();
+        }
+        try {
+            return Health.up()
+                    .withDetail("ffmpeg", ffmpeg.version())
+                    .withDetail("ffprobe", ffprobe.version())
+                    .withDetail("running", running.size())
+                    .build();
+        } catch (IOException e) {
+            return Health.down(e).build();
+        }
+    }
+
+    public FFmpegProbeResult probe(String source) throws IOException {
+        requireAvailable();
+        return withTimeout("ffprobe " + source, Duration.ofSeconds(probeTimeoutSeconds), () -> ffprobe.probe(source));
+    }
+
+    public void run(List<String> args) throws IOException {
+        run(args, Duration.ofMinutes(encodeTimeoutMinutes));
+    }
+
+    public void run(List<String> args, Duration timeout) throws IOException {
+        requireAvailable();
+        withTimeout("ffmpeg", timeout, () -> {
+            ffmpeg.run(args);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the command on the toolkit's own small pool. Cancelling the returned future kills the process.
+     */
+    public CompletableFuture<Void> submit(List<String> args, Duration timeout) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        Future<?> task = jobExecutor.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            worker.set(Thread.currentThread());
+            try {
+                run(args, timeout);
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                worker.set(null);
+            }
+        });
+        result.whenComplete((ignored, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(false);
+                Thread thread = worker.get();
+                if (thread != null) {
+                    kill(thread, "cancelled");
+                }
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        watchdog.shutdownNow();
+        running.keySet().forEach(thread -> kill(thread, "shutdown"));
+    }
+
+    private <T> T withTimeout(String description, Duration timeout, ProcessCall<T> call) throws IOException {
+        Thread current = Thread.currentThread();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> deadline = watchdog.schedule(() -> {
+            timedOut.set(true);
+            kill(current, "timeout after " + timeout);
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            return call.call();
+        } catch (IOException | RuntimeException e) {
+            if (timedOut.get()) {
+                throw new IOException(description + " timed out after " + timeout, e);
+            }
+            throw e;
+        } finally {
+            deadline.cancel(false);
+            running.remove(current);
+        }
+    }
+
+    private void kill(Thread thread, String reason) {
+        Process process = running.remove(thread);
+        if (process != null && process.isAlive()) {
+            log.warn("Killing ffmpeg process {} on {} ({})", process.pid(), thread.getName(), reason);
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+            killedProcesses.increment();
+        }
+    }
+
+    private void requireAvailable() throws IOException {
+        if (unavailableReason != null) {
+            throw new IOException("FFmpeg is not available: " + unavailableReason);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ProcessCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Starts processes like the library default and records which thread owns each one.
+     */
+    private final class TrackingProcessFunction implements ProcessFunction {
+        private final RunProcessFunction delegate = new RunProcessFunction();
+
+        @Override
+        public Process run(List<String> args) throws IOException {
+            Process process = delegate.run(args);
+            running.put(Thread.currentThread(), process);
+            return process;
+        }
+    }
+}
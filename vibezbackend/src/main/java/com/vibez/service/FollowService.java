@@ -22,12 +22,18 @@ public class FollowService {
     private final NotificationService notificationService;
 
     private final InAppNotificationService inAppNotificationService;
+    private final TasteProfileService tasteProfileService;
+    private final UserIdentityService userIdentityService;
 
-    public FollowService(FollowRepository followRepository, UserRepository userRepository, NotificationService notificationService, InAppNotificationService inAppNotificationService) {
+    public FollowService(FollowRepository followRepository, UserRepository userRepository, NotificationService notificationService,
+                         InAppNotificationService inAppNotificationService, TasteProfileService tasteProfileService,
+                         UserIdentityService userIdentityService) {
         this.followRepository = followRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
         this.inAppNotificationService = inAppNotificationService;
+        this.tasteProfileService = tasteProfileService;
+        this.userIdentityService = userIdentityService;
     }
 
     @Transactional
@@ -43,10 +49,12 @@ public class FollowService {
 
         if(existingFollow.isPresent()) {
             followRepository.delete(existingFollow.get());
+            tasteProfileService.onFollowChanged(follower.getId(), following.getId(), false);
             return false;
         }else{
             Follow follow = new Follow(follower, following);
             followRepository.save(follow);
+            tasteProfileService.onFollowChanged(follower.getId(), following.getId(), true);
 
             sendNewFollowerNotification(following, follower.getUsername());
             inAppNotificationService.createNewFollowerNotification(following, follower);
@@ -55,28 +63,26 @@ public class FollowService {
         }
     }
     public boolean isFollowing(String followerUsername, String followingUsername) {
-        User follower = userRepository.findByUsername(followerUsername).orElse(null);
-        User following = userRepository.findByUsername(followingUsername).orElse(null);
-        if(follower == null || following == null) {
+        Optional<Long> followerId = userIdentityService.findUserId(followerUsername);
+        Optional<Long> followingId = userIdentityService.findUserId(followingUsername);
+        if(followerId.isEmpty() || followingId.isEmpty()) {
             return false;
         }
-        return followRepository.existsByFollowerAndFollowing(follower, following);
+        return followRepository.existsByFollowerAndFollowing(
+                userRepository.getReferenceById(followerId.get()), userRepository.getReferenceById(followingId.get()));
     }
     public long getFollowersCount(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(()->new RuntimeException("User not found"));
+        User user = userIdentityService.getUserReference(username);
         return followRepository.countByFollowing(user);
     }
     public long getFollowingCount(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(()->new RuntimeException("User not found"));
+        User user = userIdentityService.getUserReference(username);
         return followRepository.countByFollower(user);
     }
 
     @Transactional(readOnly = true)
     public List<UserFollowDto> getFollowersDto(String profileUsername, String currentUsername) {
-        User profileUser = userRepository.findByUsername(profileUsername)
-                .orElseThrow(() -> new RuntimeException("Profile user not found"));
+        User profileUser = userIdentityService.getUserReference(profileUsername);
 
         Set<String> followingByCurrentUser = getFollowingUsernames(currentUsername);
 
@@ -94,8 +100,7 @@ public class FollowService {
 
     @Transactional(readOnly = true)
     public List<UserFollowDto> getFollowingDto(String profileUsername, String currentUsername) {
-        User profileUser = userRepository.findByUsername(profileUsername)
-                .orElseThrow(() -> new RuntimeException("Profile user not found"));
+        User profileUser = userIdentityService.getUserReference(profileUsername);
 
         Set<String> followingByCurrentUser = getFollowingUsernames(currentUsername);
 
@@ -113,8 +118,7 @@ public class FollowService {
 
     @Transactional(readOnly = true)
     protected Set<String> getFollowingUsernames(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        User user = userIdentityService.getUserReference(username);
 
         return followRepository.findByFollower(user).stream()
                 .map(follow -> follow.getFollowing().getUsername())
@@ -2,21 +2,53 @@ package com.vibez.service;
 
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.storage.*;
+import com.vibez.model.StoredObject;
+import com.vibez.model.types.StoredObjectKind;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Service
 public class ImageStorageService {
 
+    private static final String ORIGINAL = "original.jpg";
+    private static final float COMPRESSION_QUALITY = 0.85f;
+
     private final Storage storage;
+    private final ContentIndexService contentIndexService;
+    private final Executor uploadExecutor;
+    private final Executor imageExecutor;
 
     @Value("${gcp.storage.bucket-name}")
     private String bucketName;
@@ -24,7 +56,45 @@ public class ImageStorageService {
     @Value("${gcp.credentials.file-path:}")
     private String credentialsFilePath;
 
-    public ImageStorageService() throws IOException {
+    @Value("${vibez.images.rendition-widths:64,256,720}")
+    private List<Integer> renditionWidths;
+
+    @Value("${vibez.images.max-width:1440}")
+    private int maxWidth;
+
+    @Value("${vibez.images.max-profile-picture-bytes:10485760}")
+    private long maxProfilePictureBytes;
+
+    @Value("${vibez.images.max-source-pixels:100000000}")
+    private long maxSourcePixels;
+
+    @Value("${vibez.images.decode-pixel-budget:8000000}")
+    private long decodePixelBudget;
+
+    @Value("${vibez.images.decode-wait-seconds:30}")
+    private long decodeWaitSeconds;
+
+    // Caps how many decoded bitmaps exist at once; together with the pixel budget this bounds image heap use.
+    private final Semaphore decodePermits;
+
+    public static class StoredImage {
+        public String url;
+        public String variants;
+
+        public StoredImage(String url, String variants) {
+            this.url = url;
+            this.variants = variants;
+        }
+    }
+
+    public ImageStorageService(ContentIndexService contentIndexService,
+                               @Qualifier("uploadExecutor") Executor uploadExecutor,
+                               @Qualifier("imageExecutor") Executor imageExecutor,
+                               @Value("${vibez.images.max-concurrent-decodes:4}") int maxConcurrentDecodes) throws IOException {
+        this.contentIndexService = contentIndexService;
+        this.uploadExecutor = uploadExecutor;
+        this.imageExecutor = imageExecutor;
+        this.decodePermits = new Semaphore(maxConcurrentDecodes, true);
         GoogleCredentials credentials;
 
         if (credentialsFilePath != null && !credentialsFilePath.trim().isEmpty()) {
@@ -70,46 +140,249 @@ public class ImageStorageService {
         return url.toString();
     }
 
+    /**
+     * Keys are generated here, under a per-user prefix, so a confirm call can only claim objects
+     * that were presigned for that user.
+     */
+    public String newProfilePictureKey(Long userId, String originalFileName) {
+        String extension = originalFileName != null && originalFileName.lastIndexOf('.') > 0
+                ? originalFileName.substring(originalFileName.lastIndexOf('.')).toLowerCase().replaceAll("[^a-z0-9.]", "")
+                : "";
+        return profilePicturePrefix(userId) + System.currentTimeMillis() + "_" + baseName(originalFileName) + extension;
+    }
+
+    public String profilePicturePrefix(Long userId) {
+        return "profile-pictures/" + userId + "/";
+    }
+
+    /**
+     * Checks a client-uploaded object using its metadata only (the equivalent of a HEAD request),
+     * so the image bytes never pass through the backend. Objects that fail the check are deleted.
+     *
+     * @throws IllegalArgumentException when the object is missing, not an image or too large
+     */
+    public void verifyUploadedImage(String key) {
+        Blob blob = storage.get(BlobId.of(bucketName, key));
+        if (blob == null || !blob.exists()) {
+            throw new IllegalArgumentException("Nie znaleziono przesłanego pliku");
+        }
+        String contentType = blob.getContentType();
+        if (contentType == null || !contentType.startsWith("image/") || blob.getSize() > maxProfilePictureBytes) {
+            storage.delete(blob.getBlobId());
+            throw new IllegalArgumentException("Nieprawidłowy plik zdjęcia profilowego");
+        }
+    }
+
+    /**
+     * Runs the {@link #uploadImage} pipeline on an object the client uploaded directly, on the image executor.
+     * The object is read from the bucket once; it is left in place for the caller to delete once unused.
+     */
+    public CompletableFuture<StoredImage> storeUploadedImageAsync(String key) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                byte[] content = storage.readAllBytes(BlobId.of(bucketName, key));
+                return storeImage(contentIndexService.hash(content), () -> new ByteArrayInputStream(content),
+                        key.substring(key.lastIndexOf('/') + 1));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, imageExecutor);
+    }
+
+    /**
+     * Best effort: a leftover object only costs storage.
+     */
+    public void deleteObject(String key) {
+        try {
+            storage.delete(BlobId.of(bucketName, key));
+        } catch (StorageException e) {
+            log.warn("Could not delete image {}: {}", key, e.getMessage());
+        }
+    }
+
     public String uploadFile(MultipartFile file) throws IOException {
-        byte[] imageBytes = convertToJpg(file);
-        String originalFileName = file.getOriginalFilename();
-        String baseFileName = originalFileName != null ?
-                originalFileName.substring(0, originalFileName.lastIndexOf('.')) :
-                "image";
-        String fileName = System.currentTimeMillis() + "_" + baseFileName + ".jpg";
-
-        BlobId blobId = BlobId.of(bucketName, fileName);
-        BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
-                .setContentType("image/jpeg")
-                .build();
+        return uploadImage(file).url;
+    }
+
+    /**
+     * Runs {@link #uploadImage} on the image executor. Its blob PUTs go to the separate upload executor,
+     * so a saturated image pool can never wait on itself.
+     */
+    public CompletableFuture<StoredImage> uploadImageAsync(MultipartFile file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return uploadImage(file);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, imageExecutor);
+    }
+
+    /**
+     * Stores the image under {@code images/<name>/} as a size-capped {@code original.jpg} plus one rendition
+     * per configured width, in JPEG and, when an ImageIO WebP writer is on the classpath, WebP. The source is
+     * decoded once with subsampling, so a 4000 px photo is never materialised at full resolution.
+     */
+    public StoredImage uploadImage(MultipartFile file) throws IOException {
+        return storeImage(contentIndexService.hash(file), file::getInputStream, file.getOriginalFilename());
+    }
+
+    private StoredImage storeImage(String contentHash, ImageSource source, String originalFileName) throws IOException {
+        Optional<StoredObject> existing = contentIndexService.find(StoredObjectKind.IMAGE, contentHash);
+        if (existing.isPresent()) {
+            return new StoredImage(buildPublicUrl(existing.get().getObjectKey()), existing.get().getVariants());
+        }
 
-        storage.create(blobInfo, imageBytes);
+        boolean webp = ImageIO.getImageWritersByFormatName("webp").hasNext();
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        List<String> variants = new ArrayList<>();
+
+        acquireDecodePermit();
+        try {
+            BufferedImage image = decodeSubsampled(source, maxWidth);
+            encoded.put(ORIGINAL, encode(scaleToWidth(image, Math.min(image.getWidth(), maxWidth)), "jpg"));
+            for (int width : renditionWidths) {
+                BufferedImage rendition = scaleToWidth(image, Math.min(image.getWidth(), width));
+                variants.add(width + ".jpg");
+                encoded.put(width + ".jpg", encode(rendition, "jpg"));
+                if (webp) {
+                    variants.add(width + ".webp");
+                    encoded.put(width + ".webp", encode(rendition, "webp"));
+                }
+            }
+        } finally {
+            decodePermits.release();
+        }
+
+        String prefix = "images/" + System.currentTimeMillis() + "_" + baseName(originalFileName) + "/";
+        try {
+            CompletableFuture.allOf(encoded.entrySet().stream()
+                            .map(entry -> CompletableFuture.runAsync(
+                                    () -> storeBlob(prefix + entry.getKey(), entry.getValue()), uploadExecutor))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+        } catch (CompletionException e) {
+            throw new IOException("Nie można zapisać obrazu: " + e.getCause().getMessage(), e.getCause());
+        }
 
-        return buildPublicUrl(fileName);
+        String variantList = String.join(",", variants);
+        contentIndexService.register(StoredObjectKind.IMAGE, contentHash, prefix + ORIGINAL, null, variantList);
+        return new StoredImage(buildPublicUrl(prefix + ORIGINAL), variantList);
     }
 
-    private byte[] convertToJpg(MultipartFile file) throws IOException {
-        BufferedImage image = ImageIO.read(file.getInputStream());
+    private void storeBlob(String key, byte[] content) {
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, key))
+                .setContentType(key.endsWith(".webp") ? "image/webp" : "image/jpeg")
+                .setCacheControl("public, max-age=31536000, immutable")
+                .build();
+        storage.create(blobInfo, content);
+    }
 
-        if (image == null) {
-            throw new IOException("Nie można odczytać pliku obrazu");
+    private void acquireDecodePermit() throws IOException {
+        try {
+            if (!decodePermits.tryAcquire(decodeWaitSeconds, TimeUnit.SECONDS)) {
+                throw new IOException("Serwer przetwarza zbyt wiele obrazów, spróbuj ponownie");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Przerwano oczekiwanie na przetworzenie obrazu", e);
         }
+    }
 
-        BufferedImage rgbImage = new BufferedImage(
-                image.getWidth(),
-                image.getHeight(),
-                BufferedImage.TYPE_INT_RGB
-        );
+    /**
+     * Reads the dimensions from the header before any pixel data, rejects sources above
+     * {@code vibez.images.max-source-pixels} and picks a subsampling factor so the decoded bitmap
+     * fits {@code vibez.images.decode-pixel-budget}; the full-resolution image is never allocated.
+     */
+    private BufferedImage decodeSubsampled(ImageSource source, int targetWidth) throws IOException {
+        try (InputStream in = source.open();
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                throw new IOException("Nie można odczytać pliku obrazu");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new IOException("Obraz jest zbyt duży: " + width + "x" + height);
+                }
 
-        rgbImage.createGraphics().drawImage(image, 0, 0,
-                java.awt.Color.WHITE, null);
+                // Keep every n-th pixel so the decoded width stays at or above the largest size we store,
+                // unless that would still exceed the budget (e.g. very tall images).
+                int factor = Math.max(1, width / targetWidth);
+                while ((long) ceilDiv(width, factor) * ceilDiv(height, factor) > decodePixelBudget) {
+                    factor++;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        ImageIO.write(rgbImage, "jpg", outputStream);
+    private static long ceilDiv(int value, int divisor) {
+        return (value + divisor - 1L) / divisor;
+    }
+
+    /**
+     * Flattens onto white (JPEG has no alpha) and downscales in halving steps, which keeps
+     * bilinear filtering from aliasing on large reductions.
+     */
+    private BufferedImage scaleToWidth(BufferedImage source, int targetWidth) {
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            graphics.dispose();
+            current = step;
+        } while (width > targetWidth);
+        return current;
+    }
 
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(COMPRESSION_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
         return outputStream.toByteArray();
     }
 
+    private String baseName(String originalFileName) {
+        if (originalFileName == null || originalFileName.isBlank()) {
+            return "image";
+        }
+        int dot = originalFileName.lastIndexOf('.');
+        String base = dot > 0 ? originalFileName.substring(0, dot) : originalFileName;
+        return base.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private interface ImageSource {
+        InputStream open() throws IOException;
+    }
+
     public String buildPublicUrl(String fileName) {
         return "https://storage.googleapis.com/" + bucketName + "/" + fileName;
     }
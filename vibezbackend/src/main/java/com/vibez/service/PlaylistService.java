@@ -28,6 +28,7 @@ public class PlaylistService {
     private final PlaylistReelRepository playlistReelRepository;
     private final UserRepository userRepository;
     private final ReelRepository reelRepository;
+    private final UserIdentityService userIdentityService;
 
     @Transactional
     public Playlist createPlaylist(String username, String name, String description, boolean isPublic) {
@@ -61,8 +62,7 @@ public class PlaylistService {
 
     @Transactional
     public void deletePlaylist(Long playlistId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        User user = userIdentityService.getUserReference(username);
 
         Playlist playlist = playlistRepository.findByIdAndOwner(playlistId, user)
                 .orElseThrow(() -> new EntityNotFoundException("Playlist not found or you don't have permission"));
@@ -73,8 +73,7 @@ public class PlaylistService {
 
     @Transactional
     public PlaylistReel addReelToPlaylist(Long playlistId, Long reelId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        User user = userIdentityService.getUserReference(username);
 
         Playlist playlist = playlistRepository.findByIdAndOwner(playlistId, user)
                 .orElseThrow(() -> new EntityNotFoundException("Playlist not found or you don't have permission"));
@@ -98,8 +97,7 @@ public class PlaylistService {
 
     @Transactional
     public void removeReelFromPlaylist(Long playlistId, Long reelId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        User user = userIdentityService.getUserReference(username);
 
         Playlist playlist = playlistRepository.findByIdAndOwner(playlistId, user)
                 .orElseThrow(() -> new EntityNotFoundException("Playlist not found or you don't have permission"));
@@ -113,11 +111,12 @@ public class PlaylistService {
 
     @Transactional(readOnly = true)
     public List<Playlist> getUserPlaylists(String username, String requestingUsername) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
         if (username.equals(requestingUsername)) {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
             return playlistRepository.findByOwnerWithReels(user);
         }
+        userIdentityService.requireUserId(username);
         return playlistRepository.findPublicPlaylistsByUsername(username);
     }
 
@@ -140,8 +139,7 @@ public class PlaylistService {
 
     @Transactional(readOnly = true)
     public Set<Long> getSavedReelIds(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        User user = userIdentityService.getUserReference(username);
 
         List<PlaylistReel> savedEntries = playlistReelRepository.findByPlaylist_Owner(user);
 
@@ -0,0 +1,176 @@
+package com.vibez.service;
+
+import com.vibez.model.Reel;
+import com.vibez.model.Tag;
+import com.vibez.repository.ReelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory candidate pool for the FOR_YOU feed. Every reel is kept as a small, immutable feature record
+ * (author id, interned genre id, tag ids, like count) so ranking never touches JPA entities.
+ * The index is built once on startup and then kept current by reel creation and like events.
+ */
+@Slf4j
+@Component
+public class RecommendationIndex {
+
+    public static final int NO_GENRE = -1;
+
+    private static final Comparator<ScoredReel> RANK_ORDER = Comparator
+            .comparingDouble(ScoredReel::getScore).reversed()
+            .thenComparing(Comparator.comparingLong(ScoredReel::getReelId).reversed());
+
+    private final ReelRepository reelRepository;
+
+    private final Map<Long, ReelFeatures> features = new ConcurrentHashMap<>();
+    private final Map<String, Integer> genreIds = new ConcurrentHashMap<>();
+    private final Map<Integer, String> genreNames = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGenreId = new AtomicInteger();
+
+    public RecommendationIndex(ReelRepository reelRepository) {
+        this.reelRepository = reelRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<Long, List<Long>> tagsByReel = new HashMap<>();
+        for (Object[] row : reelRepository.findAllReelTagIds()) {
+            tagsByReel.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+        }
+
+        for (Object[] row : reelRepository.findAllFeatureRows()) {
+            Long reelId = (Long) row[0];
+            features.put(reelId, new ReelFeatures(
+                    reelId,
+                    (Long) row[1],
+                    genreId((String) row[2]),
+                    toArray(tagsByReel.getOrDefault(reelId, List.of())),
+                    (Integer) row[3]));
+        }
+        log.info("Recommendation index built with {} reels and {} genres", features.size(), genreIds.size());
+    }
+
+    public void indexReel(Reel reel) {
+        long[] tagIds = reel.getTags().stream()
+                .map(Tag::getId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .toArray();
+        features.put(reel.getId(), new ReelFeatures(
+                reel.getId(), reel.getUser().getId(), genreId(reel.getGenre()), tagIds, reel.getLikeCount()));
+    }
+
+    @Transactional(readOnly = true)
+    public void indexReel(Long reelId) {
+        reelRepository.findById(reelId).ifPresent(this::indexReel);
+    }
+
+    public void updateLikeCount(Long reelId, int likeCount) {
+        features.computeIfPresent(reelId, (id, current) -> current.withLikeCount(likeCount));
+    }
+
+    public ReelFeatures get(Long reelId) {
+        return features.get(reelId);
+    }
+
+    public int genreId(String genre) {
+        if (genre == null || genre.isBlank()) {
+            return NO_GENRE;
+        }
+        return genreIds.computeIfAbsent(genre, g -> {
+            int id = nextGenreId.getAndIncrement();
+            genreNames.put(id, g);
+            return id;
+        });
+    }
+
+    public String genreName(int genreId) {
+        return genreNames.get(genreId);
+    }
+
+    /**
+     * Returns the best {@code limit} reels ranked after the given (score, id) position, using a bounded min-heap
+     * so the cost is O(N log limit) with a single score evaluation per reel.
+     */
+    public List<ScoredReel> topK(ToDoubleFunction<ReelFeatures> scorer, LongPredicate excluded,
+                                 FeedCursor after, int limit) {
+        double afterScore = Double.longBitsToDouble(after.getSortKey());
+        PriorityQueue<ScoredReel> heap = new PriorityQueue<>(limit + 1, RANK_ORDER.reversed());
+
+        for (ReelFeatures reel : features.values()) {
+            if (excluded.test(reel.getReelId())) {
+                continue;
+            }
+            ScoredReel candidate = new ScoredReel(reel.getReelId(), scorer.applyAsDouble(reel));
+            if (!after.isStart() && !candidate.isAfter(afterScore, after.getReelId())) {
+                continue;
+            }
+            heap.offer(candidate);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        List<ScoredReel> ranked = new ArrayList<>(heap);
+        ranked.sort(RANK_ORDER);
+        return ranked;
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public static final class ReelFeatures {
+        private final long reelId;
+        private final long authorId;
+        private final int genreId;
+        private final long[] tagIds;
+        private final int likeCount;
+
+        ReelFeatures(long reelId, long authorId, int genreId, long[] tagIds, int likeCount) {
+            this.reelId = reelId;
+            this.authorId = authorId;
+            this.genreId = genreId;
+            this.tagIds = tagIds;
+            this.likeCount = likeCount;
+        }
+
+        ReelFeatures withLikeCount(int newLikeCount) {
+            return new ReelFeatures(reelId, authorId, genreId, tagIds, newLikeCount);
+        }
+
+        public long getReelId() { return reelId; }
+        public long getAuthorId() { return authorId; }
+        public int getGenreId() { return genreId; }
+        public long[] getTagIds() { return tagIds; }
+        public int getLikeCount() { return likeCount; }
+    }
+
+    public static final class ScoredReel {
+        private final long reelId;
+        private final double score;
+
+        ScoredReel(long reelId, double score) {
+            this.reelId = reelId;
+            this.score = score;
+        }
+
+        boolean isAfter(double cursorScore, long cursorReelId) {
+            return score < cursorScore || (score == cursorScore && reelId < cursorReelId);
+        }
+
+        public long getReelId() { return reelId; }
+        public double getScore() { return score; }
+    }
+}
@@ -1,89 +1,91 @@
 package com.vibez.service;
 
-import com.vibez.model.*;
-import com.vibez.repository.ReelRepository;
+import com.vibez.dto.CursorPage;
+import com.vibez.dto.FeedReelDto;
+import com.vibez.repository.LikeRepository;
 import com.vibez.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.vibez.service.RecommendationIndex.ReelFeatures;
+import com.vibez.service.RecommendationIndex.ScoredReel;
+import com.vibez.service.TasteProfileService.TasteVector;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class RecommendationService {
 
-    private final ReelRepository reelRepository;
     private final UserRepository userRepository;
-
-    public RecommendationService(ReelRepository reelRepository, UserRepository userRepository) {
-        this.reelRepository = reelRepository;
+    private final LikeRepository likeRepository;
+    private final RecommendationIndex recommendationIndex;
+    private final TasteProfileService tasteProfileService;
+    private final ReelService reelService;
+
+    public RecommendationService(UserRepository userRepository, LikeRepository likeRepository,
+                                 RecommendationIndex recommendationIndex, TasteProfileService tasteProfileService,
+                                 ReelService reelService) {
         this.userRepository = userRepository;
+        this.likeRepository = likeRepository;
+        this.recommendationIndex = recommendationIndex;
+        this.tasteProfileService = tasteProfileService;
+        this.reelService = reelService;
     }
 
     @Transactional(readOnly = true)
-    public List<Reel> getRecommendedReelsForUser(String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isEmpty()) {
-            return reelRepository.findAll();
+    public CursorPage<FeedReelDto> getRecommendedReelsForUser(String username, String cursor, int size) {
+        Optional<Long> userId = userRepository.findIdByUsername(username);
+        if (userId.isEmpty()) {
+            return reelService.getLatestReels(cursor, size);
         }
 
-        User user = userOpt.get();
-        Set<Like> userLikes = user.getLikes();
-        Set<Follow> userFollowing = user.getFollowing();
-        Set<Long> likedReelIds = userLikes.stream()
-                .map(like -> like.getReel().getId())
-                .collect(Collectors.toSet());
-
-        Set<Long> followingUserIds = userFollowing.stream()
-                .map(follow -> follow.getFollowing().getId())
-                .collect(Collectors.toSet());
-
-        Map<String, Integer> tagScores = new HashMap<>();
-        Map<String, Integer> genreScores = new HashMap<>();
-
-        for (Like like : userLikes) {
-            Reel reel = like.getReel();
-
-            if (reel.getGenre() != null) {
-                genreScores.merge(reel.getGenre(), 1, Integer::sum);
-            }
-
-            for (Tag tag : reel.getTags()) {
-                tagScores.merge(tag.getName(), 1, Integer::sum);
-            }
+        Set<Long> likedReelIds = new HashSet<>(likeRepository.findReelIdsByUserId(userId.get()));
+        // Later pages score with the taste as it was for the first one, so time decay cannot move reels
+        // across the cursor. The cursor's own reel is excluded in case its like count dropped since.
+        FeedCursor position = FeedCursor.decode(cursor);
+        long snapshotAt = position.getSnapshotAt() == 0
+                ? System.currentTimeMillis() : position.getSnapshotAt();
+        TasteVector taste = tasteProfileService.getTasteVector(userId.get(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshotAt), ZoneId.systemDefault()));
+
+        List<ScoredReel> ranked = recommendationIndex.topK(
+                reel -> calculateScore(reel, taste),
+                reelId -> likedReelIds.contains(reelId) || (!position.isStart() && reelId == position.getReelId()),
+                position,
+                size + 1);
+
+        boolean hasMore = ranked.size() > size;
+        List<ScoredReel> page = hasMore ? ranked.subList(0, size) : ranked;
+        String nextCursor = null;
+        if (hasMore) {
+            ScoredReel last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(Double.doubleToLongBits(last.getScore()), last.getReelId(), snapshotAt).encode();
         }
 
-        List<Reel> allReels = reelRepository.findAll();
-
-        return allReels.stream()
-                .filter(reel -> !likedReelIds.contains(reel.getId()))
-                .sorted((r1, r2) -> {
-                    double score1 = calculateScore(r1, tagScores, genreScores, followingUserIds);
-                    double score2 = calculateScore(r2, tagScores, genreScores, followingUserIds);
-                    return Double.compare(score2, score1);
-                })
-                .collect(Collectors.toList());
+        List<Long> ids = page.stream().map(ScoredReel::getReelId).collect(Collectors.toList());
+        return new CursorPage<>(reelService.loadFeedInOrder(ids), nextCursor);
     }
 
-
-    private double calculateScore(Reel reel, Map<String, Integer> tagScores, Map<String, Integer> genreScores, Set<Long> followingUserIds) {
+    private double calculateScore(ReelFeatures reel, TasteVector taste) {
         double score = 0;
 
-        if (followingUserIds.contains(reel.getUser().getId())) {
+        if (taste.follows(reel.getAuthorId())) {
             score += 5.0;
         }
 
-        if (reel.getGenre() != null) {
-            score += genreScores.getOrDefault(reel.getGenre(), 0) * 2.0;
+        if (reel.getGenreId() != RecommendationIndex.NO_GENRE) {
+            score += taste.genreWeight(reel.getGenreId()) * 2.0;
         }
 
-        for (Tag tag : reel.getTags()) {
-            score += tagScores.getOrDefault(tag.getName(), 0) * 3.0;
+        for (long tagId : reel.getTagIds()) {
+            score += taste.tagWeight(tagId) * 3.0;
         }
 
         score += reel.getLikeCount() * 0.1;
 
         return score;
     }
-}
\ No newline at end of file
+}
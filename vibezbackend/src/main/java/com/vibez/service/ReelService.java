@@ -1,8 +1,15 @@
 package com.vibez.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibez.dto.CursorPage;
+import com.vibez.dto.FeedReelDto;
+import com.vibez.dto.LikeResultDto;
 import com.vibez.model.*;
+import com.vibez.model.types.ProcessingStatus;
 import com.vibez.repository.*;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,52 +24,71 @@ public class ReelService {
     private final UserRepository userRepository;
     private final LikeRepository likeRepository;
     private final PlaylistReelRepository playlistReelRepository;
-
-    public ReelService(ReelRepository reelRepository, UserRepository userRepository, LikeRepository likeRepository, PlaylistReelRepository playlistReelRepository) {
+    private final RecommendationIndex recommendationIndex;
+    private final TasteProfileService tasteProfileService;
+    private final ViewCountBuffer viewCountBuffer;
+    private final LikeCounterRepository likeCounterRepository;
+    private final FollowRepository followRepository;
+    private final UserIdentityService userIdentityService;
+    // Positive existence checks only; a stale entry for a deleted reel just makes its buffered UPDATE match no row.
+    private final Cache<Long, Boolean> knownReelIds;
+
+    public ReelService(ReelRepository reelRepository, UserRepository userRepository, LikeRepository likeRepository,
+                       PlaylistReelRepository playlistReelRepository, RecommendationIndex recommendationIndex,
+                       TasteProfileService tasteProfileService, ViewCountBuffer viewCountBuffer,
+                       LikeCounterRepository likeCounterRepository, FollowRepository followRepository,
+                       UserIdentityService userIdentityService,
+                       @Value("${vibez.views.known-reels-cache-size:100000}") long knownReelsCacheSize) {
         this.reelRepository = reelRepository;
         this.userRepository = userRepository;
         this.likeRepository = likeRepository;
         this.playlistReelRepository = playlistReelRepository;
+        this.recommendationIndex = recommendationIndex;
+        this.tasteProfileService = tasteProfileService;
+        this.viewCountBuffer = viewCountBuffer;
+        this.likeCounterRepository = likeCounterRepository;
+        this.followRepository = followRepository;
+        this.userIdentityService = userIdentityService;
+        this.knownReelIds = Caffeine.newBuilder()
+                .maximumSize(knownReelsCacheSize)
+                .build();
     }
 
     @Transactional
-    public Reel likeReel(Long reelId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
-        Reel reel = reelRepository.findById(reelId)
-                .orElseThrow(() -> new EntityNotFoundException("Reel not found: " + reelId));
-
-        if (likeRepository.existsByUserAndReel(user, reel)) {
-            return reel;
-        }
-
-        Like newLike = new Like(user, reel);
+    public LikeResultDto likeReel(Long reelId, String username) {
+        Long userId = userIdentityService.requireUserId(username);
 
+        Optional<Integer> likeCount;
         try {
-            likeRepository.save(newLike);
-
-            reel.incrementLikeCount();
-            return reelRepository.save(reel);
-
+            likeCount = likeCounterRepository.likeReel(userId, reelId);
         } catch (DataIntegrityViolationException e) {
-            throw new IllegalStateException("Like operation failed due to concurrent modification.", e);
+            throw new EntityNotFoundException("Reel not found: " + reelId);
         }
+
+        if (likeCount.isEmpty()) {
+            return new LikeResultDto(reelId, currentLikeCount(reelId), true);
+        }
+        recommendationIndex.updateLikeCount(reelId, likeCount.get());
+        tasteProfileService.onReelLiked(userId, reelId);
+        return new LikeResultDto(reelId, likeCount.get(), true);
     }
 
     @Transactional
-    public Reel unlikeReel(Long reelId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
-        Reel reel = reelRepository.findById(reelId)
-                .orElseThrow(() -> new EntityNotFoundException("Reel not found: " + reelId));
+    public LikeResultDto unlikeReel(Long reelId, String username) {
+        Long userId = userIdentityService.requireUserId(username);
 
-        Like like = likeRepository.findByUserAndReel(user, reel)
-                .orElseThrow(() -> new EntityNotFoundException("Like not found"));
-
-        likeRepository.delete(like);
+        Optional<Integer> likeCount = likeCounterRepository.unlikeReel(userId, reelId);
+        if (likeCount.isEmpty()) {
+            return new LikeResultDto(reelId, currentLikeCount(reelId), false);
+        }
+        recommendationIndex.updateLikeCount(reelId, likeCount.get());
+        tasteProfileService.onReelUnliked(userId, reelId);
+        return new LikeResultDto(reelId, likeCount.get(), false);
+    }
 
-        reel.decrementLikeCount();
-        return reelRepository.save(reel);
+    private int currentLikeCount(Long reelId) {
+        return likeCounterRepository.findReelLikeCount(reelId)
+                .orElseThrow(() -> new EntityNotFoundException("Reel not found: " + reelId));
     }
 
     @Transactional(readOnly = true)
@@ -77,7 +103,9 @@ public class ReelService {
                 .collect(Collectors.toList());
     }
     public List<Reel> getAllReelsWithTopLevelComments() {
-        List<Reel> reels = reelRepository.findAllByOrderByCreatedAtDesc();
+        List<Reel> reels = reelRepository.findAllByOrderByCreatedAtDesc().stream()
+                .filter(reel -> reel.getProcessingStatus() == ProcessingStatus.READY)
+                .collect(Collectors.toList());
 
         for (Reel reel : reels) {
             if (reel.getComments() != null) {
@@ -103,7 +131,9 @@ public class ReelService {
     }
 
     public List<Reel> getReelsByUserWithTopLevelComments(User user) {
-        List<Reel> reels = reelRepository.findByUser(user);
+        List<Reel> reels = reelRepository.findByUser(user).stream()
+                .filter(reel -> reel.getProcessingStatus() == ProcessingStatus.READY)
+                .collect(Collectors.toList());
 
         reels.forEach(reel -> {
             List<Comment> topLevelComments = reel.getComments().stream()
@@ -119,8 +149,7 @@ public class ReelService {
         Reel reel = reelRepository.findById(reelId)
                 .orElseThrow(() -> new EntityNotFoundException("Reel not found: " + reelId));
 
-        User requestingUser = userRepository.findByUsername(requestingUsername)
-                .orElse(null);
+        Long requestingUserId = userIdentityService.findUserId(requestingUsername).orElse(null);
 
         List<PlaylistReel> entries = playlistReelRepository.findByReel(reel);
 
@@ -128,61 +157,92 @@ public class ReelService {
                 .map(PlaylistReel::getPlaylist)
                 .filter(playlist -> {
                     if (playlist.isPublic()) return true;
-                    return requestingUser != null && playlist.getOwner().equals(requestingUser);
+                    return requestingUserId != null && requestingUserId.equals(playlist.getOwner().getId());
                 })
                 .map(Playlist::getName)
                 .distinct()
                 .collect(Collectors.toList());
     }
     @Transactional(readOnly = true)
-    public List<Reel> getFollowingReels(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+    public CursorPage<FeedReelDto> getLatestReels(String cursor, int size) {
+        FeedCursor position = FeedCursor.decode(cursor);
+        return toIdOrderedPage(reelRepository.findLatestFeed(position.getReelId(), size + 1), size);
+    }
 
-        List<User> following = user.getFollowing().stream()
-                .map(follow -> follow.getFollowing())
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<FeedReelDto> getFollowingReels(String username, String cursor, int size) {
+        Long userId = userIdentityService.requireUserId(username);
+        List<Long> followingIds = followRepository.findFollowingIdsByFollowerId(userId);
 
-        if (following.isEmpty()) {
-            return Collections.emptyList();
+        if (followingIds.isEmpty()) {
+            return CursorPage.empty();
         }
 
-        List<Reel> rawReels = reelRepository.findByUserInOrderByIdDesc(following);
-        return processReels(rawReels);
+        FeedCursor position = FeedCursor.decode(cursor);
+        return toIdOrderedPage(reelRepository.findFollowingFeed(followingIds, position.getReelId(), size + 1), size);
     }
 
     @Transactional(readOnly = true)
-    public List<Reel> getPopularReels() {
-        List<Reel> rawReels = reelRepository.findTop50ByOrderByLikeCountDesc();
-        return processReels(rawReels);
+    public CursorPage<FeedReelDto> getPopularReels(String cursor, int size) {
+        FeedCursor position = FeedCursor.decode(cursor);
+        int likeCount = (int) Math.min(position.getSortKey(), Integer.MAX_VALUE);
+        List<FeedReelView> views = reelRepository.findPopularFeed(likeCount, position.getReelId(), size + 1);
+
+        boolean hasMore = views.size() > size;
+        List<FeedReelView> page = hasMore ? views.subList(0, size) : views;
+        String nextCursor = null;
+        if (hasMore) {
+            FeedReelView last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(last.getLikeCount(), last.getId()).encode();
+        }
+        return new CursorPage<>(toDtos(page), nextCursor);
     }
 
-    private List<Reel> processReels(List<Reel> rawReels) {
-        Set<Reel> uniqueReelsSet = new LinkedHashSet<>(rawReels);
-        uniqueReelsSet.forEach(this::filterTopLevelComments);
-
-        return new ArrayList<>(uniqueReelsSet);
+    /**
+     * Loads feed entries for an already ranked id list, preserving the ranking order.
+     */
+    @Transactional(readOnly = true)
+    public List<FeedReelDto> loadFeedInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, FeedReelView> byId = new HashMap<>();
+        for (FeedReelView view : reelRepository.findFeedViewsByIdIn(ids)) {
+            byId.put(view.getId(), view);
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(FeedReelDto::new)
+                .collect(Collectors.toList());
     }
 
-    private void filterTopLevelComments(Reel reel) {
-        if (reel.getComments() == null || reel.getComments().isEmpty()) {
-            return;
-        }
-        Map<Long, Comment> uniqueComments = new LinkedHashMap<>();
+    private CursorPage<FeedReelDto> toIdOrderedPage(List<FeedReelView> views, int size) {
+        boolean hasMore = views.size() > size;
+        List<FeedReelView> page = hasMore ? views.subList(0, size) : views;
+        String nextCursor = hasMore
+                ? new FeedCursor(0, page.get(page.size() - 1).getId()).encode()
+                : null;
+        return new CursorPage<>(toDtos(page), nextCursor);
+    }
 
-        for (Comment comment : reel.getComments()) {
-            if (comment.getParentComment() == null) {
-                uniqueComments.putIfAbsent(comment.getId(), comment);
-            }
-        }
-        reel.setComments(new ArrayList<>(uniqueComments.values()));
+    private List<FeedReelDto> toDtos(List<FeedReelView> views) {
+        return views.stream()
+                .map(FeedReelDto::new)
+                .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Checks the reel against the database (cached per id) rather than the recommendation index,
+     * which only holds READY reels and is empty until it has been built.
+     */
     public void incrementViewCount(Long reelId) {
-        Reel reel = reelRepository.findById(reelId)
-                .orElseThrow(() -> new EntityNotFoundException("Reel not found: " + reelId));
-        reel.incrementViewCount();
-        reelRepository.save(reel);
+        if (knownReelIds.getIfPresent(reelId) == null) {
+            if (!reelRepository.existsById(reelId)) {
+                throw new EntityNotFoundException("Reel not found: " + reelId);
+            }
+            knownReelIds.put(reelId, Boolean.TRUE);
+        }
+        viewCountBuffer.record(reelId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.vibez.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of search responses keyed by search kind, normalized query and page.
+ * Caffeine's size-bounded eviction keeps frequently searched queries (trending tags) over one-off ones,
+ * and the TTL bounds how stale a result can get. Reel results are also dropped as soon as a reel whose
+ * indexed words match every query term is published. Hit ratio is exported as {@code cache.gets}
+ * with {@code cache=search} and as {@code vibez.search.cache.hit.ratio}.
+ */
+@Component
+public class SearchResultCache {
+
+    public enum Kind {
+        USERS(false), AUTOCOMPLETE(false), REELS(true), TAGS(true), TOP(true);
+
+        private final boolean containsReels;
+
+        Kind(boolean containsReels) {
+            this.containsReels = containsReels;
+        }
+    }
+
+    private final Cache<Key, Object> results;
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${vibez.search.cache.max-size:10000}") long maxSize,
+                             @Value("${vibez.search.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "search");
+        Gauge.builder("vibez.search.cache.hit.ratio", results, cache -> cache.stats().hitRate())
+                .description("Share of search requests answered from the result cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached result or runs {@code search} and caches it. The search runs outside the cache,
+     * so a slow query never holds a map bin that {@link #invalidateMatching} or other lookups need;
+     * concurrent misses on one key may search twice.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Kind kind, String query, int page, int size, Supplier<T> search) {
+        Key key = new Key(kind, query, page, size);
+        T cached = (T) results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        T result = search.get();
+        if (result != null) {
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(Kind kind, String query, int page, int size) {
+        return (T) results.getIfPresent(new Key(kind, query, page, size));
+    }
+
+    public void put(Kind kind, String query, int page, int size, Object result) {
+        results.put(new Key(kind, query, page, size), result);
+    }
+
+    /**
+     * Drops cached reel results whose every query term is a prefix of one of {@code words},
+     * i.e. the searches a newly published reel with those indexed words would now appear in.
+     */
+    public void invalidateMatching(Collection<String> words) {
+        if (words.isEmpty()) {
+            return;
+        }
+        results.asMap().keySet().removeIf(key -> key.kind.containsReels && matchesAll(key.terms, words));
+    }
+
+    private static boolean matchesAll(List<String> terms, Collection<String> words) {
+        return !terms.isEmpty() && terms.stream()
+                .allMatch(term -> words.stream().anyMatch(word -> word.startsWith(term)));
+    }
+
+    private static final class Key {
+        private final Kind kind;
+        private final String query;
+        private final int page;
+        private final int size;
+        // Tokenized once here so invalidation does not re-parse every cached query.
+        private final List<String> terms;
+
+        private Key(Kind kind, String query, int page, int size) {
+            this.kind = kind;
+            this.query = query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            this.page = page;
+            this.size = size;
+            this.terms = kind.containsReels ? SearchService.tokenize(this.query) : List.of();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return page == other.page && size == other.size && kind == other.kind && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, query, page, size);
+        }
+    }
+}
@@ -1,71 +1,326 @@
 package com.vibez.service;
 
-import com.vibez.model.Comment;
-import com.vibez.model.Reel;
-import com.vibez.model.User;
-import com.vibez.repository.ReelRepository;
-import com.vibez.repository.UserRepository;
+import com.vibez.dto.FeedReelDto;
+import com.vibez.dto.SearchHitDto;
+import com.vibez.dto.SliceDto;
+import com.vibez.dto.UserSimpleDto;
+import com.vibez.repository.ReelSearchRepository;
+import com.vibez.repository.ReelSearchRepository.ReelMatch;
+import com.vibez.repository.UserSearchRepository;
+import com.vibez.repository.UserSearchRepository.UserMatch;
+import com.vibez.service.SearchResultCache.Kind;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class SearchService {
 
-    private final UserRepository userRepository;
-    private final ReelRepository reelRepository;
+    // Top search score = weighted match quality, popularity and recency, each in [0, 1].
+    private static final double MATCH_WEIGHT = 0.6;
+    private static final double POPULARITY_WEIGHT = 0.25;
+    private static final double RECENCY_WEIGHT = 0.15;
+    private static final double TAG_MATCH_BONUS = 0.2;
+    // Engagement (or followers) at which popularity saturates.
+    private static final double POPULARITY_SCALE = Math.log1p(10_000);
 
-    public SearchService(UserRepository userRepository, ReelRepository reelRepository) {
-        this.userRepository = userRepository;
-        this.reelRepository = reelRepository;
+    private final UserSearchRepository userSearchRepository;
+    private final ReelSearchRepository reelSearchRepository;
+    private final ReelService reelService;
+    private final Executor searchExecutor;
+    private final SearchResultCache searchResultCache;
+
+    @Value("${vibez.search.max-terms:8}")
+    private int maxTerms;
+
+    @Value("${vibez.search.backfill-batch-size:500}")
+    private int backfillBatchSize;
+
+    @Value("${vibez.search.user-results:20}")
+    private int userResults;
+
+    @Value("${vibez.search.autocomplete-candidates:50}")
+    private int autocompleteCandidates;
+
+    @Value("${vibez.search.top-candidates:50}")
+    private int topCandidates;
+
+    @Value("${vibez.search.top-deadline-ms:300}")
+    private long topDeadlineMs;
+
+    @Value("${vibez.search.recency-half-life-days:14}")
+    private double recencyHalfLifeDays;
+
+    public SearchService(UserSearchRepository userSearchRepository, ReelSearchRepository reelSearchRepository,
+                         ReelService reelService, @Qualifier("searchExecutor") Executor searchExecutor,
+                         SearchResultCache searchResultCache) {
+        this.userSearchRepository = userSearchRepository;
+        this.reelSearchRepository = reelSearchRepository;
+        this.reelService = reelService;
+        this.searchExecutor = searchExecutor;
+        this.searchResultCache = searchResultCache;
     }
 
-    @Transactional(readOnly = true)
-    public List<User> searchUsers(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return Collections.emptyList();
+    /**
+     * Creates the search column and indexes while the context starts, before the web server takes requests
+     * that index new reels. This bean depends on the JPA repositories, so Hibernate has created the tables by now.
+     * Username search still works without pg_trgm, only slower, so a missing extension is not fatal.
+     */
+    @PostConstruct
+    public void createIndexes() {
+        try {
+            userSearchRepository.createIndexesIfMissing();
+        } catch (DataAccessException e) {
+            log.warn("Username trigram index not available: {}", e.getMessage());
         }
-        return userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query);
+        reelSearchRepository.createIndexIfMissing();
     }
 
-    @Transactional(readOnly = true)
-    public List<Reel> searchReelsByDescription(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return Collections.emptyList();
+    /**
+     * Indexes reels that predate the search column, in batches, once the application is serving.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIndex() {
+        int indexed = 0;
+        int batch;
+        while ((batch = reelSearchRepository.backfill(backfillBatchSize)) > 0) {
+            indexed += batch;
+        }
+        if (indexed > 0) {
+            log.info("Search index backfilled for {} reels", indexed);
         }
-        List<Reel> rawReels = reelRepository.findByDescriptionContainingIgnoreCase(query);
-        return processReels(rawReels);
     }
 
-    @Transactional(readOnly = true)
-    public List<Reel> searchReelsByTag(String query) {
-        if (query == null || query.trim().isEmpty()) {
+    public void indexReel(Long reelId) {
+        reelSearchRepository.refreshReel(reelId);
+    }
+
+    public void indexReelsOfUser(Long userId) {
+        reelSearchRepository.refreshReelsOfUser(userId);
+    }
+
+    /**
+     * Called once a reel is READY and therefore visible to search: cached reel results it now belongs to are dropped.
+     * A failure here must not fail the publish; the cache TTL catches up instead.
+     */
+    public void onReelPublished(Long reelId) {
+        try {
+            searchResultCache.invalidateMatching(reelSearchRepository.findLexemes(reelId));
+        } catch (DataAccessException e) {
+            log.warn("Could not invalidate cached searches for reel {}: {}", reelId, e.getMessage());
+        }
+    }
+
+    public List<UserSimpleDto> searchUsers(String query) {
+        return searchResultCache.get(Kind.USERS, query, 0, userResults, () -> findUserDtos(query, userResults));
+    }
+
+    /**
+     * Typeahead over usernames only: names starting with the text first, then by follower count.
+     */
+    public List<UserSimpleDto> autocompleteUsers(String text, int limit) {
+        return searchResultCache.get(Kind.AUTOCOMPLETE, text, 0, limit, () -> findUserDtos(text, limit));
+    }
+
+    /**
+     * Users, reels and tags in one ranked list. The three lookups run in parallel and each gets
+     * {@code vibez.search.top-deadline-ms}; one that misses it is left out of the response.
+     * Pages are cut from the merged {@code vibez.search.top-candidates} best hits of each lookup.
+     */
+    public SliceDto<SearchHitDto> searchTop(String query, int page, int size) {
+        SliceDto<SearchHitDto> cached = searchResultCache.getIfPresent(Kind.TOP, query, page, size);
+        if (cached != null) {
+            return cached;
+        }
+        // A response missing a lookup is served but not cached, so the next request can try again.
+        AtomicBoolean degraded = new AtomicBoolean();
+        SliceDto<SearchHitDto> result = mergeTop(query, page, size, degraded);
+        if (!degraded.get()) {
+            searchResultCache.put(Kind.TOP, query, page, size, result);
+        }
+        return result;
+    }
+
+    private SliceDto<SearchHitDto> mergeTop(String query, int page, int size, AtomicBoolean degraded) {
+        String reelQuery = toPrefixQuery(query, "", maxTerms);
+        String tagQuery = toPrefixQuery(query != null && query.startsWith("#") ? query.substring(1) : query, "A",
+                maxTerms);
+
+        // The statements carry the deadline too: orTimeout only stops waiting, it does not cancel the query.
+        CompletableFuture<List<UserMatch>> users = withDeadline("user", degraded,
+                () -> findUsers(query, topCandidates, topDeadlineMs));
+        CompletableFuture<List<ReelMatch>> reels = withDeadline("reel", degraded, () -> reelQuery == null
+                ? List.of() : reelSearchRepository.searchRanked(reelQuery, topCandidates, topDeadlineMs));
+        CompletableFuture<List<ReelMatch>> tags = withDeadline("tag", degraded, () -> tagQuery == null
+                ? List.of() : reelSearchRepository.searchRanked(tagQuery, topCandidates, topDeadlineMs));
+        CompletableFuture.allOf(users, reels, tags).join();
+
+        List<SearchHitDto> hits = new ArrayList<>();
+        String normalizedQuery = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        for (UserMatch match : users.join()) {
+            hits.add(SearchHitDto.user(match.getUser(), scoreUser(match, normalizedQuery)));
+        }
+        hits.addAll(scoreReels(reels.join(), tags.join()));
+        hits.sort(Comparator.comparingDouble(SearchHitDto::getScore).reversed());
+
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        return new SliceDto<>(new ArrayList<>(hits.subList(from, to)), page, to < hits.size());
+    }
+
+    private List<UserSimpleDto> findUserDtos(String text, int limit) {
+        return findUsers(text, limit, 0).stream()
+                .map(UserMatch::getUser)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param timeoutMs statement timeout, or 0 for none
+     */
+    private List<UserMatch> findUsers(String text, int limit, long timeoutMs) {
+        if (text == null || text.trim().isEmpty()) {
             return Collections.emptyList();
         }
-        String cleanQuery = query.startsWith("#") ? query.substring(1) : query;
+        String fragment = text.trim();
+        if (fragment.startsWith("@")) {
+            fragment = fragment.substring(1);
+        }
+        if (fragment.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return timeoutMs > 0
+                ? userSearchRepository.findByUsernameFragment(fragment, limit, autocompleteCandidates, timeoutMs)
+                : userSearchRepository.findByUsernameFragment(fragment, limit, autocompleteCandidates);
+    }
 
-        List<Reel> rawReels = reelRepository.findByTags_NameContainingIgnoreCase(cleanQuery);
-        return processReels(rawReels);
+    private <T> CompletableFuture<List<T>> withDeadline(String name, AtomicBoolean degraded, Supplier<List<T>> search) {
+        try {
+            return CompletableFuture.supplyAsync(search, searchExecutor)
+                    .orTimeout(topDeadlineMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> {
+                        log.warn("Top search skipped the {} lookup: {}", name, e.toString());
+                        degraded.set(true);
+                        return List.of();
+                    });
+        } catch (TaskRejectedException e) {
+            log.warn("Top search skipped the {} lookup: search pool is full", name);
+            degraded.set(true);
+            return CompletableFuture.completedFuture(List.of());
+        }
     }
-    private List<Reel> processReels(List<Reel> rawReels) {
-       Set<Reel> uniqueReelsSet = new LinkedHashSet<>(rawReels);
-        uniqueReelsSet.forEach(this::filterTopLevelComments);
-        return new ArrayList<>(uniqueReelsSet);
+
+    /**
+     * Users have no recency signal, so their score spreads the recency weight over match and popularity.
+     */
+    private double scoreUser(UserMatch match, String normalizedQuery) {
+        String fragment = normalizedQuery.startsWith("@") ? normalizedQuery.substring(1) : normalizedQuery;
+        double quality = match.getUser().getUsername().equalsIgnoreCase(fragment) ? 1.0
+                : match.isPrefixMatch() ? 0.8 : 0.5;
+        double popularity = Math.min(1.0, Math.log1p(match.getFollowerCount()) / POPULARITY_SCALE);
+        return (MATCH_WEIGHT * quality + POPULARITY_WEIGHT * popularity) / (MATCH_WEIGHT + POPULARITY_WEIGHT);
     }
 
-    private void filterTopLevelComments(Reel reel) {
-        if (reel.getComments() == null || reel.getComments().isEmpty()) {
-            return;
+    private List<SearchHitDto> scoreReels(List<ReelMatch> textMatches, List<ReelMatch> tagMatches) {
+        Map<Long, Double> ranks = new LinkedHashMap<>();
+        for (ReelMatch match : textMatches) {
+            ranks.put(match.getReelId(), match.getRank());
+        }
+        for (ReelMatch match : tagMatches) {
+            ranks.merge(match.getReelId(), match.getRank() + TAG_MATCH_BONUS, Math::max);
+        }
+        if (ranks.isEmpty()) {
+            return List.of();
         }
-        Map<Long, Comment> uniqueComments = new LinkedHashMap<>();
+        double bestRank = Collections.max(ranks.values());
+        LocalDateTime now = LocalDateTime.now();
 
-        for (Comment comment : reel.getComments()) {
-            if (comment.getParentComment() == null) {
-                uniqueComments.putIfAbsent(comment.getId(), comment);
+        List<SearchHitDto> hits = new ArrayList<>();
+        for (FeedReelDto reel : reelService.loadFeedInOrder(new ArrayList<>(ranks.keySet()))) {
+            // Anything that matched every term is at least as good as a substring username match.
+            double quality = bestRank > 0 ? 0.5 + 0.5 * ranks.get(reel.getId()) / bestRank : 0.5;
+            double engagement = reel.getLikeCount() + 2.0 * reel.getCommentCount() + reel.getViewCount() / 20.0;
+            double popularity = Math.min(1.0, Math.log1p(engagement) / POPULARITY_SCALE);
+            double recency = 0;
+            if (reel.getCreatedAt() != null) {
+                double ageDays = Math.max(0, Duration.between(reel.getCreatedAt(), now).toHours() / 24.0);
+                recency = Math.pow(0.5, ageDays / recencyHalfLifeDays);
             }
+            hits.add(SearchHitDto.reel(reel,
+                    MATCH_WEIGHT * quality + POPULARITY_WEIGHT * popularity + RECENCY_WEIGHT * recency));
+        }
+        return hits;
+    }
+
+    /**
+     * Matches every word of the query as a prefix anywhere in the reel's description, tags, song, author,
+     * genre or uploader, ranked so that tag and description hits come first.
+     */
+    @Transactional(readOnly = true)
+    public SliceDto<FeedReelDto> searchReels(String query, int page, int size) {
+        return searchResultCache.get(Kind.REELS, query, page, size,
+                () -> searchIndex(toPrefixQuery(query, "", maxTerms), page, size));
+    }
+
+    /**
+     * Same index, restricted to the tag-name weight.
+     */
+    @Transactional(readOnly = true)
+    public SliceDto<FeedReelDto> searchReelsByTag(String query, int page, int size) {
+        String cleanQuery = query != null && query.startsWith("#") ? query.substring(1) : query;
+        return searchResultCache.get(Kind.TAGS, cleanQuery, page, size,
+                () -> searchIndex(toPrefixQuery(cleanQuery, "A", maxTerms), page, size));
+    }
+
+    private SliceDto<FeedReelDto> searchIndex(String tsQuery, int page, int size) {
+        if (tsQuery == null) {
+            return new SliceDto<>(new ArrayList<>(), page, false);
+        }
+        List<Long> ids = reelSearchRepository.search(tsQuery, size + 1, (long) page * size);
+        boolean hasNext = ids.size() > size;
+        List<FeedReelDto> reels = reelService.loadFeedInOrder(hasNext ? ids.subList(0, size) : ids);
+        return new SliceDto<>(reels, page, hasNext);
+    }
+
+    /**
+     * Turns free text into {@code word1:*W & word2:*W}. Only letters and digits survive,
+     * so user input can never break the tsquery syntax.
+     */
+    static String toPrefixQuery(String query, String weights, int maxTerms) {
+        List<String> terms = tokenize(query).stream()
+                .limit(maxTerms)
+                .map(term -> term + ":*" + weights)
+                .collect(Collectors.toList());
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, the same words the 'simple' text search configuration produces.
+     */
+    static List<String> tokenize(String query) {
+        if (query == null) {
+            return List.of();
         }
-        reel.setComments(new ArrayList<>(uniqueComments.values()));
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,58 @@
 package com.vibez.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.vibez.model.Tag;
 import com.vibez.repository.TagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.text.Normalizer;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Resolves the comma-separated tags of a new reel. Names are normalized so that {@code #Dance}, {@code dance}
+ * and full-width {@code ｄａｎｃｅ} are one tag, known names come from a name-to-id cache warmed with the
+ * most used tags, and all unknown names are created and fetched in a single upsert statement,
+ * which also makes concurrent uploads of the same new tag safe.
+ */
+@Slf4j
 @Service
 public class TagService {
 
     private final TagRepository tagRepository;
+    private final Cache<String, Long> idsByName;
+    private final long cacheSize;
+    private final int maxLength;
+    private final int maxTagsPerReel;
 
-    public TagService(TagRepository tagRepository) {
+    public TagService(TagRepository tagRepository,
+                      @Value("${vibez.tags.cache-size:50000}") long cacheSize,
+                      @Value("${vibez.tags.max-length:50}") int maxLength,
+                      @Value("${vibez.tags.max-per-reel:30}") int maxTagsPerReel) {
         this.tagRepository = tagRepository;
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+        this.cacheSize = cacheSize;
+        this.maxLength = maxLength;
+        this.maxTagsPerReel = maxTagsPerReel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCache() {
+        List<Tag> tags = tagRepository.findMostUsed((int) Math.min(cacheSize, Integer.MAX_VALUE));
+        tags.forEach(this::remember);
+        log.info("Tag cache warmed with {} tags", tags.size());
     }
 
     public Set<Tag> findOrCreateTags(String tagsString) {
@@ -23,15 +60,63 @@ public class TagService {
             return new HashSet<>();
         }
 
-        return Arrays.stream(tagsString.split(","))
-                .map(String::trim)
+        Set<String> names = Arrays.stream(tagsString.split(","))
+                .map(this::normalize)
                 .filter(tagName -> !tagName.isEmpty())
-                .map(tagName -> {
-                    String cleanTagName = tagName.startsWith("#") ? tagName.substring(1) : tagName;
-                    return tagRepository.findByName(cleanTagName)
-                            .orElseGet(() -> tagRepository.save(new Tag(cleanTagName)));
-                })
-                .collect(Collectors.toSet());
+                .limit(maxTagsPerReel)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Set<Tag> tags = new HashSet<>();
+        Set<String> unknown = new LinkedHashSet<>();
+        for (String name : names) {
+            Long id = idsByName.getIfPresent(name);
+            if (id != null) {
+                tags.add(tagRepository.getReferenceById(id));
+            } else {
+                unknown.add(name);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return tags;
+        }
+
+        for (Tag tag : tagRepository.upsertAll(String.join(",", unknown))) {
+            remember(tag);
+            tags.add(tag);
+            unknown.remove(tag.getName());
+        }
+        if (!unknown.isEmpty()) {
+            // Committed by a concurrent upload after the upsert took its snapshot.
+            for (Tag tag : tagRepository.findByNameIn(unknown)) {
+                remember(tag);
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Canonical form of a tag: leading '#' and all whitespace and control characters removed, NFKC-normalized,
+     * lower-cased and cut to {@code vibez.tags.max-length} code points. Commas never survive, as they separate tags.
+     */
+    public String normalize(String rawName) {
+        if (rawName == null) {
+            return "";
+        }
+        String name = Normalizer.normalize(rawName, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[\\s\\p{Cntrl}\\p{Cf},]+", "");
+        name = Normalizer.normalize(name, Normalizer.Form.NFKC);
+        while (name.startsWith("#")) {
+            name = name.substring(1);
+        }
+        if (name.codePointCount(0, name.length()) > maxLength) {
+            name = name.substring(0, name.offsetByCodePoints(0, maxLength));
+        }
+        return name;
     }
-}
 
+    private void remember(Tag tag) {
+        idsByName.put(tag.getName(), tag.getId());
+    }
+}
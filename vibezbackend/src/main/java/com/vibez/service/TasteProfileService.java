@@ -0,0 +1,201 @@
+package com.vibez.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibez.model.UserTasteProfile;
+import com.vibez.repository.FollowRepository;
+import com.vibez.repository.LikeRepository;
+import com.vibez.repository.UserTasteProfileRepository;
+import com.vibez.service.RecommendationIndex.ReelFeatures;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a per-user taste vector (tag weights, genre weights, followed authors) warm in memory and persisted in
+ * {@code user_taste_profiles}. Likes and follows adjust it incrementally and weights decay exponentially with
+ * a configurable half-life, so recent interests dominate without ever replaying the full like history.
+ */
+@Service
+public class TasteProfileService {
+
+    private static final double MIN_WEIGHT = 0.01;
+
+    private final UserTasteProfileRepository profileRepository;
+    private final LikeRepository likeRepository;
+    private final FollowRepository followRepository;
+    private final RecommendationIndex recommendationIndex;
+    private final Duration halfLife;
+
+    private final Cache<Long, UserTasteProfile> cache;
+
+    public TasteProfileService(UserTasteProfileRepository profileRepository, LikeRepository likeRepository,
+                               FollowRepository followRepository, RecommendationIndex recommendationIndex,
+                               @Value("${vibez.recommendation.taste-half-life-days:30}") long halfLifeDays,
+                               @Value("${vibez.recommendation.taste-cache-size:10000}") long cacheSize) {
+        this.profileRepository = profileRepository;
+        this.likeRepository = likeRepository;
+        this.followRepository = followRepository;
+        this.recommendationIndex = recommendationIndex;
+        this.halfLife = Duration.ofDays(halfLifeDays);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+    }
+
+    /**
+     * Returns a read-only view of the user's taste decayed to {@code asOf}, keyed the same way as the recommendation
+     * index. The stored profile is left untouched, so repeated calls with the same {@code asOf} give the same weights
+     * until the user likes or follows something.
+     */
+    public TasteVector getTasteVector(Long userId, LocalDateTime asOf) {
+        UserTasteProfile profile = getProfile(userId);
+        synchronized (profile) {
+            double factor = decayFactor(profile.getDecayedAt(), asOf);
+
+            Map<Long, Double> tagWeights = new HashMap<>();
+            profile.getTagWeights().forEach((tagId, weight) -> tagWeights.put(tagId, weight * factor));
+
+            Map<Integer, Double> genreWeights = new HashMap<>();
+            profile.getGenreWeights().forEach((genre, weight) ->
+                    genreWeights.put(recommendationIndex.genreId(genre), weight * factor));
+
+            return new TasteVector(tagWeights, genreWeights, new HashSet<>(profile.getFollowedAuthorIds()));
+        }
+    }
+
+    public void onReelLiked(Long userId, Long reelId) {
+        applyReel(userId, reelId, 1.0);
+    }
+
+    public void onReelUnliked(Long userId, Long reelId) {
+        applyReel(userId, reelId, -1.0);
+    }
+
+    public void onFollowChanged(Long followerId, Long followingId, boolean following) {
+        update(followerId, profile -> {
+            if (following) {
+                profile.getFollowedAuthorIds().add(followingId);
+            } else {
+                profile.getFollowedAuthorIds().remove(followingId);
+            }
+        });
+    }
+
+    private void applyReel(Long userId, Long reelId, double delta) {
+        ReelFeatures reel = recommendationIndex.get(reelId);
+        if (reel == null) {
+            return;
+        }
+        update(userId, profile -> {
+            for (long tagId : reel.getTagIds()) {
+                adjust(profile.getTagWeights(), tagId, delta);
+            }
+            String genre = recommendationIndex.genreName(reel.getGenreId());
+            if (genre != null) {
+                adjust(profile.getGenreWeights(), genre, delta);
+            }
+        });
+    }
+
+    private void update(Long userId, Consumer<UserTasteProfile> change) {
+        UserTasteProfile profile = getProfile(userId);
+        synchronized (profile) {
+            decay(profile, LocalDateTime.now());
+            change.accept(profile);
+            profileRepository.save(profile);
+        }
+        evictOnRollback(userId);
+    }
+
+    private UserTasteProfile getProfile(Long userId) {
+        return cache.get(userId, id -> profileRepository.findById(id)
+                .map(UserTasteProfile::copy)
+                .orElseGet(() -> buildFromHistory(id)));
+    }
+
+    private UserTasteProfile buildFromHistory(Long userId) {
+        UserTasteProfile profile = new UserTasteProfile(userId);
+        for (Long likedReelId : likeRepository.findReelIdsByUserId(userId)) {
+            ReelFeatures reel = recommendationIndex.get(likedReelId);
+            if (reel == null) {
+                continue;
+            }
+            for (long tagId : reel.getTagIds()) {
+                adjust(profile.getTagWeights(), tagId, 1.0);
+            }
+            String genre = recommendationIndex.genreName(reel.getGenreId());
+            if (genre != null) {
+                adjust(profile.getGenreWeights(), genre, 1.0);
+            }
+        }
+        profile.getFollowedAuthorIds().addAll(followRepository.findFollowingIdsByFollowerId(userId));
+        return profile;
+    }
+
+    private void decay(UserTasteProfile profile, LocalDateTime now) {
+        Duration elapsed = Duration.between(profile.getDecayedAt(), now);
+        if (elapsed.toMinutes() < 1) {
+            return;
+        }
+        double factor = decayFactor(profile.getDecayedAt(), now);
+        scale(profile.getTagWeights(), factor);
+        scale(profile.getGenreWeights(), factor);
+        profile.setDecayedAt(now);
+    }
+
+    private double decayFactor(LocalDateTime from, LocalDateTime to) {
+        return Math.pow(0.5, (double) Duration.between(from, to).toMillis() / halfLife.toMillis());
+    }
+
+    private static <K> void adjust(Map<K, Double> weights, K key, double delta) {
+        double weight = weights.getOrDefault(key, 0.0) + delta;
+        if (weight < MIN_WEIGHT) {
+            weights.remove(key);
+        } else {
+            weights.put(key, weight);
+        }
+    }
+
+    private static <K> void scale(Map<K, Double> weights, double factor) {
+        weights.replaceAll((key, weight) -> weight * factor);
+        weights.values().removeIf(weight -> weight < MIN_WEIGHT);
+    }
+
+    private void evictOnRollback(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    cache.invalidate(userId);
+                }
+            }
+        });
+    }
+
+    public static final class TasteVector {
+        private final Map<Long, Double> tagWeights;
+        private final Map<Integer, Double> genreWeights;
+        private final Set<Long> followedAuthorIds;
+
+        TasteVector(Map<Long, Double> tagWeights, Map<Integer, Double> genreWeights, Set<Long> followedAuthorIds) {
+            this.tagWeights = tagWeights;
+            this.genreWeights = genreWeights;
+            this.followedAuthorIds = followedAuthorIds;
+        }
+
+        public double tagWeight(long tagId) { return tagWeights.getOrDefault(tagId, 0.0); }
+        public double genreWeight(int genreId) { return genreWeights.getOrDefault(genreId, 0.0); }
+        public boolean follows(long authorId) { return followedAuthorIds.contains(authorId); }
+    }
+}
@@ -0,0 +1,148 @@
+package com.vibez.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs ffmpeg jobs on a fixed number of workers sized so that concurrent encodes never ask for more
+ * threads than the node has cores. Waiting jobs sit in a bounded queue with two lanes: clips up to
+ * {@code vibez.transcode.short-clip-seconds} always start before longer ones, FIFO within a lane.
+ * A full queue rejects new work instead of letting it pile up.
+ */
+@Slf4j
+@Component
+public class TranscodeScheduler {
+
+    public enum Lane { SHORT, LONG }
+
+    private final ThreadPoolExecutor executor;
+    private final int workers;
+    private final int queueCapacity;
+    private final int threadsPerEncode;
+    private final double shortClipSeconds;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<Lane, AtomicInteger> queuedByLane = Map.of(Lane.SHORT, new AtomicInteger(), Lane.LONG, new AtomicInteger());
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Lane, Timer> encodeTimers;
+    private final Counter rejected;
+
+    public TranscodeScheduler(@Value("${vibez.transcode.workers:0}") int configuredWorkers,
+                              @Value("${vibez.transcode.threads-per-encode:2}") int threadsPerEncode,
+                              @Value("${vibez.transcode.queue-capacity:20}") int queueCapacity,
+                              @Value("${vibez.transcode.short-clip-seconds:30}") double shortClipSeconds,
+                              MeterRegistry meterRegistry) {
+        this.threadsPerEncode = Math.max(1, threadsPerEncode);
+        this.workers = configuredWorkers > 0
+                ? configuredWorkers
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / this.threadsPerEncode);
+        this.queueCapacity = queueCapacity;
+        this.shortClipSeconds = shortClipSeconds;
+
+        // The priority queue itself is unbounded; submit() enforces the capacity.
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), new CustomizableThreadFactory("Transcode-"));
+
+        this.encodeTimers = Map.of(
+                Lane.SHORT, encodeTimer(meterRegistry, Lane.SHORT),
+                Lane.LONG, encodeTimer(meterRegistry, Lane.LONG));
+        this.rejected = Counter.builder("vibez.transcode.rejected")
+                .description("Transcode jobs turned away because the queue was full")
+                .register(meterRegistry);
+        for (Lane lane : Lane.values()) {
+            Gauge.builder("vibez.transcode.queue.depth", queuedByLane.get(lane), AtomicInteger::get)
+                    .description("Transcode jobs waiting for a worker")
+                    .tag("lane", lane.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("vibez.transcode.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Transcode jobs currently running")
+                .register(meterRegistry);
+
+        log.info("Transcode scheduler: {} workers x {} threads, queue capacity {}", workers, this.threadsPerEncode, queueCapacity);
+    }
+
+    /**
+     * @param durationSeconds probed clip duration; unknown (0 or less) goes to the long lane
+     * @throws TaskRejectedException when {@code vibez.transcode.queue-capacity} jobs are already waiting
+     */
+    public void submit(double durationSeconds, Runnable job) {
+        Lane lane = durationSeconds > 0 && durationSeconds <= shortClipSeconds ? Lane.SHORT : Lane.LONG;
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new TaskRejectedException("Transcode queue is full (" + queueCapacity + " jobs waiting)");
+        }
+        queuedByLane.get(lane).incrementAndGet();
+        executor.execute(new QueuedJob(lane, sequence.getAndIncrement(), job));
+    }
+
+    public int getThreadsPerEncode() {
+        return threadsPerEncode;
+    }
+
+    /**
+     * Rough wait until a worker frees up, for the {@code Retry-After} of a rejected upload:
+     * the mean encode time multiplied by how many rounds of workers the queue holds.
+     */
+    public long estimateRetryAfterSeconds() {
+        double meanSeconds = encodeTimers.values().stream()
+                .filter(timer -> timer.count() > 0)
+                .mapToDouble(timer -> timer.mean(TimeUnit.SECONDS))
+                .average()
+                .orElse(30);
+        double rounds = Math.ceil((double) queued.get() / workers);
+        return Math.max(5, Math.min(300, Math.round(meanSeconds * Math.max(1, rounds))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Timer encodeTimer(MeterRegistry meterRegistry, Lane lane) {
+        return Timer.builder("vibez.transcode.duration")
+                .description("Wall time of a transcode job")
+                .tag("lane", lane.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private final class QueuedJob implements Runnable, Comparable<QueuedJob> {
+        private final Lane lane;
+        private final long sequence;
+        private final Runnable job;
+
+        private QueuedJob(Lane lane, long sequence, Runnable job) {
+            this.lane = lane;
+            this.sequence = sequence;
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            queuedByLane.get(lane).decrementAndGet();
+            encodeTimers.get(lane).record(job);
+        }
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            int byLane = lane.compareTo(other.lane);
+            return byLane != 0 ? byLane : Long.compare(sequence, other.sequence);
+        }
+    }
+}
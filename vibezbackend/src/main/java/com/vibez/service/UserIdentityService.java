@@ -0,0 +1,83 @@
+package com.vibez.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibez.config.UserPrincipal;
+import com.vibez.model.User;
+import com.vibez.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resolves emails and usernames to user ids without loading the {@code User} entity.
+ * Entries expire after a TTL so a rename made on another instance is picked up eventually;
+ * renames on this instance evict immediately through {@link #evict(String, String)}.
+ * Unknown users are not cached, so a freshly synced account resolves on its first request.
+ */
+@Service
+public class UserIdentityService {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> principalsByEmail;
+    private final Cache<String, Long> idsByUsername;
+
+    public UserIdentityService(UserRepository userRepository,
+                               @Value("${vibez.identity-cache.max-size:50000}") long maxSize,
+                               @Value("${vibez.identity-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.userRepository = userRepository;
+        this.principalsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    public Optional<UserPrincipal> findPrincipalByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(principalsByEmail.get(email, key -> userRepository.findIdentityByEmail(key)
+                .map(identity -> new UserPrincipal(identity.getId(), identity.getUsername(), identity.getEmail()))
+                .orElse(null)));
+    }
+
+    public Optional<Long> findUserId(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(idsByUsername.get(username, key -> userRepository.findIdByUsername(key).orElse(null)));
+    }
+
+    public Long requireUserId(String username) {
+        return findUserId(username)
+                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+    }
+
+    /**
+     * Uninitialized reference for use as a foreign key in queries and new rows;
+     * reading any field other than the id triggers a load.
+     */
+    public User getUserReference(String username) {
+        return userRepository.getReferenceById(requireUserId(username));
+    }
+
+    public User getUserReference(UserPrincipal principal) {
+        return userRepository.getReferenceById(principal.getId());
+    }
+
+    public void evict(String username, String email) {
+        if (username != null) {
+            idsByUsername.invalidate(username);
+        }
+        if (email != null) {
+            principalsByEmail.invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.vibez.service;
+
+import com.vibez.model.Reel;
+import com.vibez.model.ReelPreview;
+import com.vibez.model.StoredObject;
+import com.vibez.model.types.ProcessingStatus;
+import com.vibez.model.types.StoredObjectKind;
+import com.vibez.repository.ReelPreviewRepository;
+import com.vibez.repository.ReelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs video transcoding and upload off the request thread. The controller persists the reel as
+ * {@code PENDING} and hands the staged upload over here; the {@link TranscodeScheduler} moves it through
+ * {@code PROCESSING} to {@code READY} or {@code FAILED}. Only READY reels are indexed for feeds.
+ * Uploads whose content hash is already in the content index skip processing and reuse the stored objects.
+ */
+@Slf4j
+@Service
+public class VideoIngestionService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final VideoStorageService videoStorageService;
+    private final ReelRepository reelRepository;
+    private final ReelPreviewService reelPreviewService;
+    private final ReelPreviewRepository reelPreviewRepository;
+    private final RecommendationIndex recommendationIndex;
+    private final ContentIndexService contentIndexService;
+    private final TranscodeScheduler transcodeScheduler;
+    private final SearchService searchService;
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @Value("${vibez.ingestion.stale-after-minutes:60}")
+    private long staleAfterMinutes;
+
+    public VideoIngestionService(VideoStorageService videoStorageService, ReelRepository reelRepository,
+                                 ReelPreviewService reelPreviewService, ReelPreviewRepository reelPreviewRepository,
+                                 RecommendationIndex recommendationIndex, ContentIndexService contentIndexService,
+                                 TranscodeScheduler transcodeScheduler, SearchService searchService) {
+        this.videoStorageService = videoStorageService;
+        this.reelRepository = reelRepository;
+        this.reelPreviewService = reelPreviewService;
+        this.reelPreviewRepository = reelPreviewRepository;
+        this.recommendationIndex = recommendationIndex;
+        this.contentIndexService = contentIndexService;
+        this.transcodeScheduler = transcodeScheduler;
+        this.searchService = searchService;
+    }
+
+    public long estimateRetryAfterSeconds() {
+        return transcodeScheduler.estimateRetryAfterSeconds();
+    }
+
+    /**
+     * Publishes the reel straight away on top of an already processed copy of the same video.
+     *
+     * @param useExistingPreview whether to copy the preview frames of a reel that already uses this video
+     */
+    private void reuse(Reel reel, StoredObject existing, boolean useExistingPreview) {
+        Long reelId = reel.getId();
+        String videoUrl = videoStorageService.buildPublicUrl(existing.getObjectKey());
+        String manifestUrl = existing.getManifestKey() != null
+                ? videoStorageService.buildPublicUrl(existing.getManifestKey())
+                : null;
+        reelRepository.markReady(reelId, videoUrl, manifestUrl);
+
+        if (useExistingPreview) {
+            reelPreviewRepository.findFirstByReel_VideoUrl(videoUrl)
+                    .map(ReelPreview::getFrameUrls)
+                    .filter(frameUrls -> !frameUrls.isEmpty())
+                    .ifPresent(frameUrls -> reelPreviewService.createPreview(reel, new ArrayList<>(frameUrls)));
+        }
+        recommendationIndex.indexReel(reelId);
+        searchService.onReelPublished(reelId);
+        log.info("Reel {} reuses stored video {}", reelId, existing.getObjectKey());
+    }
+
+    public boolean requiresStaging(MultipartFile videoFile) throws IOException {
+        return videoStorageService.requiresStaging(videoFile);
+    }
+
+    public Path stage(MultipartFile videoFile) throws IOException {
+        return videoStorageService.stageUpload(videoFile);
+    }
+
+    /**
+     * Streams the upload to the bucket, hashing it on the way so duplicates are caught without a second read.
+     */
+    public UploadedVideo upload(MultipartFile videoFile) throws IOException {
+        try (DigestInputStream in = contentIndexService.digesting(videoFile.getInputStream())) {
+            String videoFileName = videoStorageService.streamUpload(in, videoFile.getOriginalFilename(),
+                    videoFile.getSize());
+            return new UploadedVideo(videoFileName, contentIndexService.hexDigest(in));
+        }
+    }
+
+    public void discard(Path stagedVideo) {
+        videoStorageService.discardStagedUpload(stagedVideo);
+    }
+
+    /**
+     * Queues the staged video for processing. The job hashes it first and reuses an identical stored video
+     * instead of transcoding.
+     *
+     * @param useGeneratedPreview whether frames extracted during processing become the reel preview
+     * @throws TaskRejectedException when the worker queue is full; the staged file is left to the caller
+     */
+    public void submit(Reel reel, Path stagedVideo, String originalFileName, boolean useGeneratedPreview) {
+        Long reelId = reel.getId();
+        double duration = videoStorageService.probeDuration(stagedVideo.toString());
+        enqueue(reelId, duration, () -> processStaged(reel, stagedVideo, originalFileName, useGeneratedPreview));
+        log.info("Queued video ingestion for reel {}", reelId);
+    }
+
+    /**
+     * Queues frame extraction and HLS packaging for a video already streamed to the bucket.
+     * The video itself is playable, so when the queue is full the reel is published without them.
+     * A video whose hash is already indexed reuses the stored copy and the new object is deleted.
+     */
+    public void submitUploaded(Reel reel, UploadedVideo uploaded, boolean useGeneratedPreview) {
+        Long reelId = reel.getId();
+        String contentHash = uploaded.contentHash;
+        String videoFileName = uploaded.videoFileName;
+        Optional<StoredObject> existing = contentIndexService.find(StoredObjectKind.VIDEO, contentHash);
+        if (existing.isPresent()) {
+            reuse(reel, existing.get(), useGeneratedPreview);
+            videoStorageService.deleteVideo(videoFileName);
+            return;
+        }
+        try {
+            double duration = videoStorageService.probeDuration(videoStorageService.buildPublicUrl(videoFileName));
+            enqueue(reelId, duration, () -> process(reelId, contentHash, useGeneratedPreview,
+                    () -> videoStorageService.processUploadedVideo(videoFileName)));
+            log.info("Queued video post-processing for reel {}", reelId);
+        } catch (TaskRejectedException e) {
+            log.warn("Video ingestion queue is full, publishing reel {} without preview frames and HLS", reelId);
+            reelRepository.markReady(reelId, videoStorageService.buildPublicUrl(videoFileName), null);
+            recommendationIndex.indexReel(reelId);
+            searchService.onReelPublished(reelId);
+        }
+    }
+
+    /**
+     * Submits the job and tracks its reel until it finishes, so the heartbeat keeps it from looking stalled.
+     */
+    private void enqueue(Long reelId, double duration, Runnable job) {
+        activeJobs.add(reelId);
+        try {
+            transcodeScheduler.submit(duration, () -> {
+                try {
+                    job.run();
+                } finally {
+                    activeJobs.remove(reelId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            activeJobs.remove(reelId);
+            throw e;
+        }
+    }
+
+    private void processStaged(Reel reel, Path stagedVideo, String originalFileName, boolean useGeneratedPreview) {
+        Long reelId = reel.getId();
+        String contentHash = null;
+        Optional<StoredObject> existing = Optional.empty();
+        try {
+            contentHash = contentIndexService.hash(stagedVideo);
+            existing = contentIndexService.find(StoredObjectKind.VIDEO, contentHash);
+        } catch (IOException | RuntimeException e) {
+            // Deduplication is an optimisation; the transcode below reports a genuinely unreadable file.
+            log.warn("Could not check staged video of reel {} for duplicates: {}", reelId, e.getMessage());
+        }
+        if (existing.isPresent()) {
+            videoStorageService.discardStagedUpload(stagedVideo);
+            reuse(reel, existing.get(), useGeneratedPreview);
+            return;
+        }
+        process(reelId, contentHash, useGeneratedPreview,
+                () -> videoStorageService.processStagedVideo(stagedVideo, originalFileName));
+    }
+
+    private void process(Long reelId, String contentHash, boolean useGeneratedPreview, VideoJob job) {
+        reelRepository.updateProcessingStatus(reelId, ProcessingStatus.PROCESSING, null);
+        try {
+            VideoStorageService.VideoUploadResult result = job.run();
+            String manifestUrl = result.manifestFileName != null
+                    ? videoStorageService.buildPublicUrl(result.manifestFileName)
+                    : null;
+            reelRepository.markReady(reelId, videoStorageService.buildPublicUrl(result.videoFileName), manifestUrl);
+            contentIndexService.register(StoredObjectKind.VIDEO, contentHash, result.videoFileName,
+                    result.manifestFileName, null);
+
+            List<String> frameUrls = result.previewFrameUrls;
+            if (useGeneratedPreview && !frameUrls.isEmpty()) {
+                reelRepository.findById(reelId).ifPresent(reel -> reelPreviewService.createPreview(reel, frameUrls));
+            }
+            recommendationIndex.indexReel(reelId);
+            searchService.onReelPublished(reelId);
+            log.info("Video ingestion finished for reel {}", reelId);
+        } catch (Exception e) {
+            log.error("Video ingestion failed for reel {}", reelId, e);
+            reelRepository.updateProcessingStatus(reelId, ProcessingStatus.FAILED, truncate(e.getMessage()));
+        }
+    }
+
+    /**
+     * Staged uploads live in temp directories and do not survive a restart, so a job whose node stopped
+     * stays PENDING or PROCESSING forever. Every node refreshes the timestamp of the jobs it has queued or
+     * running, and only jobs nobody refreshed for {@code vibez.ingestion.stale-after-minutes} are failed.
+     */
+    @Scheduled(initialDelayString = "${vibez.ingestion.stale-check-interval-ms:600000}",
+            fixedDelayString = "${vibez.ingestion.stale-check-interval-ms:600000}")
+    public void failInterruptedJobs() {
+        if (!activeJobs.isEmpty()) {
+            reelRepository.touchProcessing(new ArrayList<>(activeJobs));
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(staleAfterMinutes);
+        int interrupted = reelRepository.failStaleProcessing("Przetwarzanie przerwane przez restart serwera", cutoff);
+        if (interrupted > 0) {
+            log.warn("Marked {} stalled video ingestion jobs as failed", interrupted);
+        }
+    }
+
+    @FunctionalInterface
+    private interface VideoJob {
+        VideoStorageService.VideoUploadResult run() throws IOException;
+    }
+
+    public static class UploadedVideo {
+        public String videoFileName;
+        public String contentHash;
+
+        public UploadedVideo(String videoFileName, String contentHash) {
+            this.videoFileName = videoFileName;
+            this.contentHash = contentHash;
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -2,57 +2,129 @@ package com.vibez.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.bramp.ffmpeg.FFmpeg;
-import net.bramp.ffmpeg.FFmpegExecutor;
-import net.bramp.ffmpeg.FFprobe;
-import net.bramp.ffmpeg.builder.FFmpegBuilder;
 import net.bramp.ffmpeg.probe.FFmpegProbeResult;
+import net.bramp.ffmpeg.probe.FFmpegStream;
+import net.bramp.ffmpeg.probe.FFmpegStream.CodecType;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class VideoStorageService {
 
+    private static final long PREVIEW_FRAMES_TIMEOUT_MINUTES = 5;
+
     @Value("${r2.public.url}")
     private String r2publicurl;
 
     private final S3Presigner s3Presigner;
     private final S3Client s3Client;
+    @Qualifier("uploadExecutor")
+    private final Executor uploadExecutor;
+    private final TranscodeScheduler transcodeScheduler;
+    private final FfmpegToolkit ffmpegToolkit;
 
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
 
-    @Value("${ffmpeg.path:ffmpeg}")
-    private String ffmpegPath;
+    @Value("${vibez.preview.frame-count:6}")
+    private int previewFrameCount;
+
+    @Value("${vibez.preview.frame-width:480}")
+    private int previewFrameWidth;
+
+    @Value("${vibez.upload.part-size-mb:8}")
+    private int uploadPartSizeMb;
+
+    @Value("${vibez.upload.max-parts-in-flight:4}")
+    private int uploadMaxPartsInFlight;
+
+    @Value("${vibez.transcode.max-dimension:1920}")
+    private int transcodeMaxDimension;
 
-    @Value("${ffprobe.path:ffprobe}")
-    private String ffprobePath;
+    @Value("${vibez.transcode.max-bitrate-kbps:8000}")
+    private int transcodeMaxBitrateKbps;
+
+    @Value("${vibez.hls.enabled:true}")
+    private boolean hlsEnabled;
+
+    @Value("${vibez.hls.renditions:240,480,720,1080}")
+    private List<Integer> hlsRenditions;
+
+    @Value("${vibez.hls.segment-seconds:4}")
+    private int hlsSegmentSeconds;
 
     public static class VideoUploadResult {
         public String videoFileName;
         public List<String> previewFrameUrls;
+        public String manifestFileName;
 
-        public VideoUploadResult(String videoFileName, List<String> previewFrameUrls) {
+        public VideoUploadResult(String videoFileName, List<String> previewFrameUrls, String manifestFileName) {
             this.videoFileName = videoFileName;
             this.previewFrameUrls = previewFrameUrls;
+            this.manifestFileName = manifestFileName;
+        }
+    }
+
+    /**
+     * What ffmpeg has to do to make a source web-playable: streams that are already H.264 yuv420p
+     * within the size and bitrate limits, with AAC audio, are copied and only the container is rewritten.
+     */
+    static class TranscodePlan {
+        final boolean copyVideo;
+        final boolean copyAudio;
+        final boolean hasAudio;
+        final int width;
+        final int height;
+
+        TranscodePlan(boolean copyVideo, boolean copyAudio, boolean hasAudio, int width, int height) {
+            this.copyVideo = copyVideo;
+            this.copyAudio = copyAudio;
+            this.hasAudio = hasAudio;
+            this.width = width;
+            this.height = height;
+        }
+
+        boolean isRemuxOnly() {
+            return copyVideo && (!hasAudio || copyAudio);
         }
     }
 
@@ -73,146 +145,531 @@ public class VideoStorageService {
     }
 
 
-    public VideoUploadResult uploadAndConvertVideo(MultipartFile file) throws IOException {
-        log.info("Starting video upload and conversion for file: {}", file.getOriginalFilename());
-
+    /**
+     * Copies the upload into its own temp directory so it outlives the request;
+     * {@link #processStagedVideo} removes the directory when it is done.
+     */
+    public Path stageUpload(MultipartFile file) throws IOException {
         Path tempDir = Files.createTempDirectory("video-conversion-");
-        String originalFileName = file.getOriginalFilename();
-        String extension = getFileExtension(originalFileName);
-
+        Path inputPath = tempDir.resolve("input" + getFileExtension(file.getOriginalFilename()));
         try {
-            Path inputPath = tempDir.resolve("input" + extension);
             file.transferTo(inputPath.toFile());
-            log.info("Saved input file to: {}", inputPath);
-
-            Path outputPath = tempDir.resolve("output.mp4");
-
-            if (!extension.equalsIgnoreCase(".mp4")) {
-                log.info("Converting {} to MP4", extension);
-                convertToMp4(inputPath.toFile(), outputPath.toFile());
-            } else {
-                log.info("File is already MP4, copying...");
-                Files.copy(inputPath, outputPath);
-            }
+        } catch (IOException e) {
+            cleanupTempDirectory(tempDir);
+            throw e;
+        }
+        log.info("Staged upload {} at: {}", file.getOriginalFilename(), inputPath);
+        return inputPath;
+    }
 
-            String videoFileName = System.currentTimeMillis() + "_" +
-                    originalFileName.replaceAll("\\.[^.]+$", ".mp4");
+    public void discardStagedUpload(Path inputPath) {
+        cleanupTempDirectory(inputPath.getParent());
+    }
 
-            log.info("Uploading video to S3/R2 as: {}", videoFileName);
+    /**
+     * Uploads without touching local disk: the request body is read in part-sized chunks that go to R2
+     * as a multipart upload, a bounded number of parts in flight at a time. Only for uploads where
+     * {@link #requiresStaging} is false. Every byte of {@code in} is read exactly once, so a digesting
+     * stream sees the whole file even if the SDK retries a request.
+     */
+    public String streamUpload(InputStream in, String originalFileName, long size) throws IOException {
+        String videoFileName = newVideoFileName(originalFileName);
 
+        if (size <= uploadPartSizeBytes()) {
             PutObjectRequest putRequest = PutObjectRequest.builder()
                     .bucket(bucketName)
                     .key(videoFileName)
                     .contentType("video/mp4")
                     .build();
+            s3Client.putObject(putRequest, RequestBody.fromBytes(in.readAllBytes()));
+        } else {
+            multipartUpload(in, videoFileName, "video/mp4");
+        }
+        log.info("Streamed video upload to S3/R2 as: {}", videoFileName);
+        return videoFileName;
+    }
 
-            s3Client.putObject(putRequest, RequestBody.fromFile(outputPath));
-            log.info("Video uploaded successfully: {}", videoFileName);
-
-            log.info("Generating preview frames...");
-            List<String> previewFrameUrls = generatePreviewFrames(
-                    outputPath.toFile(),
-                    tempDir,
-                    videoFileName
-            );
+    /**
+     * Best effort: a leftover object only costs storage.
+     */
+    public void deleteVideo(String videoFileName) {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(videoFileName).build());
+        } catch (RuntimeException e) {
+            log.warn("Could not delete video {}: {}", videoFileName, e.getMessage());
+        }
+    }
 
-            return new VideoUploadResult(videoFileName, previewFrameUrls);
+    /**
+     * Only MP4s with the moov atom ahead of the media data can be streamed to the bucket as they are;
+     * anything else needs at least a local remux with {@code +faststart}, so it is staged to disk.
+     */
+    public boolean requiresStaging(MultipartFile file) throws IOException {
+        if (!getFileExtension(file.getOriginalFilename()).equalsIgnoreCase(".mp4")) {
+            return true;
+        }
+        try (InputStream in = file.getInputStream()) {
+            return !isFastStart(in);
+        }
+    }
 
+    /**
+     * Extracts preview frames and packages HLS for a video that is already in the bucket,
+     * reading it back over HTTP, so only the generated outputs are written locally. If the probe
+     * shows streams a browser cannot play directly, the object is re-encoded and replaced first.
+     */
+    public VideoUploadResult processUploadedVideo(String videoFileName) throws IOException {
+        Path tempDir = Files.createTempDirectory("video-processing-");
+        try {
+            String videoSource = buildPublicUrl(videoFileName);
+            TranscodePlan plan = planTranscode(videoSource);
+            if (!plan.isRemuxOnly()) {
+                Path outputPath = tempDir.resolve("output.mp4");
+                convertToMp4(videoSource, outputPath, plan);
+                uploadVideo(outputPath, videoFileName);
+                videoSource = outputPath.toString();
+            }
+            return generateDerivatives(videoSource, tempDir, videoFileName);
         } finally {
             cleanupTempDirectory(tempDir);
         }
     }
 
+    public VideoUploadResult processStagedVideo(Path inputPath, String originalFileName) throws IOException {
+        log.info("Starting video conversion for file: {}", originalFileName);
 
-    private List<String> generatePreviewFrames(File videoFile, Path tempDir, String videoFileName) throws IOException {
-        List<String> frameUrls = new ArrayList<>();
+        Path tempDir = inputPath.getParent();
 
         try {
-            FFmpeg ffmpeg = new FFmpeg(ffmpegPath);
-            FFprobe ffprobe = new FFprobe(ffprobePath);
+            Path outputPath = tempDir.resolve("output.mp4");
+            convertToMp4(inputPath.toString(), outputPath, planTranscode(inputPath.toString()));
 
-            FFmpegProbeResult probe = ffprobe.probe(videoFile.getAbsolutePath());
-            double duration = probe.getFormat().duration;
+            String videoFileName = newVideoFileName(originalFileName);
+            uploadVideo(outputPath, videoFileName);
 
-            int frameCount = 6;
-            double interval = duration / (frameCount + 1);
+            return generateDerivatives(outputPath.toString(), tempDir, videoFileName);
 
-            for (int i = 1; i <= frameCount; i++) {
-                double timestamp = interval * i;
-                String frameFileName = videoFileName.replace(".mp4", "_frame_" + i + ".jpg");
-                Path framePath = tempDir.resolve("frame_" + i + ".jpg");
-
-                // Extract frame at specific timestamp
-                FFmpegBuilder builder = new FFmpegBuilder()
-                        .setInput(videoFile.getAbsolutePath())
-                        .addOutput(framePath.toString())
-                        .setFrames(1)
-                        .setVideoFilter("select='eq(n\\," + (int)(timestamp * 30) + ")'")
-                        .setStartOffset((long)(timestamp * 1000), java.util.concurrent.TimeUnit.MILLISECONDS)
-                        .done();
-
-                builder = new FFmpegBuilder()
-                        .setInput(videoFile.getAbsolutePath())
-                        .addExtraArgs("-ss", String.valueOf(timestamp))
-                        .addOutput(framePath.toString())
-                        .setFrames(1)
-                        .setVideoQuality(2)
-                        .done();
-
-                FFmpegExecutor executor = new FFmpegExecutor(ffmpeg, ffprobe);
-                executor.createJob(builder).run();
-
-                if (Files.exists(framePath)) {
-                    PutObjectRequest putRequest = PutObjectRequest.builder()
-                            .bucket(bucketName)
-                            .key(frameFileName)
-                            .contentType("image/jpeg")
-                            .build();
-
-                    s3Client.putObject(putRequest, RequestBody.fromFile(framePath));
-                    frameUrls.add(buildPublicUrl(frameFileName));
-                    log.info("Uploaded preview frame: {}", frameFileName);
-                }
+        } finally {
+            cleanupTempDirectory(tempDir);
+        }
+    }
+
+
+    /**
+     * Starts extracting all preview frames in one ffmpeg run: seek to the first frame, then let the fps filter
+     * emit one frame per interval while the input is decoded once. The run is async so it overlaps the HLS
+     * encode; {@link #collectPreviewFrames} waits for it and uploads the frames concurrently.
+     */
+    private CompletableFuture<Void> startPreviewFrames(String videoSource, Path tempDir) {
+        try {
+            double duration = ffmpegToolkit.probe(videoSource).getFormat().duration;
+            if (duration <= 0) {
+                return CompletableFuture.completedFuture(null);
             }
 
+            double interval = duration / (previewFrameCount + 1);
+            List<String> args = List.of("-y", "-v", "error",
+                    "-ss", String.format(Locale.ROOT, "%.3f", interval),
+                    "-i", videoSource,
+                    "-vf", String.format(Locale.ROOT, "fps=1/%.3f,scale=%d:-2", interval, previewFrameWidth),
+                    "-frames:v", String.valueOf(previewFrameCount),
+                    "-q:v", "2",
+                    tempDir.resolve("frame_%02d.jpg").toString());
+            return ffmpegToolkit.submit(args, Duration.ofMinutes(PREVIEW_FRAMES_TIMEOUT_MINUTES));
         } catch (IOException e) {
-            log.error("Failed to generate preview frames", e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private List<String> collectPreviewFrames(CompletableFuture<Void> extraction, Path tempDir, String videoFileName) {
+        try {
+            extraction.join();
+
+            List<CompletableFuture<String>> uploads = new ArrayList<>();
+            for (int i = 1; i <= previewFrameCount; i++) {
+                Path framePath = tempDir.resolve(String.format(Locale.ROOT, "frame_%02d.jpg", i));
+                if (!Files.exists(framePath)) {
+                    break;
+                }
+                String frameFileName = videoFileName.replace(".mp4", "_frame_" + i + ".jpg");
+                uploads.add(CompletableFuture.supplyAsync(() -> uploadFrame(framePath, frameFileName), uploadExecutor));
+            }
+
+            return uploads.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+
+        } catch (CompletionException e) {
+            log.error("Failed to generate preview frames", e.getCause());
+            return List.of();
         }
+    }
+
+    /**
+     * Preview frames and the HLS ladder, with the frame pass running alongside the encode.
+     * The frame job is cancelled if the ladder throws, so nothing keeps writing into a temp dir being deleted.
+     */
+    private VideoUploadResult generateDerivatives(String videoSource, Path tempDir, String videoFileName) {
+        log.info("Generating preview frames and HLS ladder...");
+        CompletableFuture<Void> frames = startPreviewFrames(videoSource, tempDir);
+        try {
+            String manifestFileName = generateHlsLadder(videoSource, tempDir, videoFileName.replaceAll("\\.mp4$", ""));
+            List<String> previewFrameUrls = collectPreviewFrames(frames, tempDir, videoFileName);
+            return new VideoUploadResult(videoFileName, previewFrameUrls, manifestFileName);
+        } finally {
+            frames.cancel(true);
+        }
+    }
+
+    private String uploadFrame(Path framePath, String frameFileName) {
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(frameFileName)
+                .contentType("image/jpeg")
+                .build();
 
-        return frameUrls;
+        s3Client.putObject(putRequest, RequestBody.fromFile(framePath));
+        log.info("Uploaded preview frame: {}", frameFileName);
+        return buildPublicUrl(frameFileName);
     }
 
-    private void convertToMp4(File input, File output) throws IOException {
+    /**
+     * Packages the video as a segmented HLS ladder, one rendition per configured size that does not
+     * exceed the source, and uploads it under {@code hls/<name>/}. Rendition sizes apply to the short
+     * side, so portrait reels get the same quality steps as landscape ones. The progressive MP4 stays
+     * the fallback, so a failure here is logged and returns {@code null} instead of failing ingestion.
+     */
+    private String generateHlsLadder(String videoSource, Path tempDir, String baseName) {
+        if (!hlsEnabled) {
+            return null;
+        }
         try {
-            log.info("Initializing FFmpeg with path: {}", ffmpegPath);
-            FFmpeg ffmpeg = new FFmpeg(ffmpegPath);
-            FFprobe ffprobe = new FFprobe(ffprobePath);
-
-            FFmpegBuilder builder = new FFmpegBuilder()
-                    .setInput(input.getAbsolutePath())
-                    .overrideOutputFiles(true)
-                    .addOutput(output.getAbsolutePath())
-                    .setFormat("mp4")
-                    .setVideoCodec("libx264")
-                    .setVideoPixelFormat("yuv420p")
-                    .setPreset("medium")
-                    .setConstantRateFactor(23)
-                    .setAudioCodec("aac")
-                    .setAudioBitRate(128_000)
-                    .addExtraArgs("-movflags", "+faststart")
-                    .done();
-
-            FFmpegExecutor executor = new FFmpegExecutor(ffmpeg, ffprobe);
-            log.info("Starting FFmpeg conversion...");
-            executor.createJob(builder).run();
-            log.info("FFmpeg conversion completed successfully");
+            FFmpegProbeResult probe = ffmpegToolkit.probe(videoSource);
+            FFmpegStream video = probe.getStreams().stream()
+                    .filter(stream -> stream.codec_type == CodecType.VIDEO)
+                    .findFirst()
+                    .orElse(null);
+            if (video == null) {
+                return null;
+            }
+            boolean hasAudio = probe.getStreams().stream().anyMatch(stream -> stream.codec_type == CodecType.AUDIO);
+            // The short side does not depend on rotation, so coded dimensions are fine for choosing rungs.
+            int shortSide = Math.min(video.width, video.height);
+
+            List<Integer> rungs = hlsRenditions.stream()
+                    .filter(size -> size <= shortSide)
+                    .sorted()
+                    .collect(Collectors.toList());
+            if (rungs.isEmpty()) {
+                rungs = List.of(shortSide - shortSide % 2);
+            }
 
+            Path hlsDir = Files.createDirectories(tempDir.resolve("hls"));
+            ffmpegToolkit.run(buildHlsArgs(videoSource, hlsDir, rungs, hasAudio));
+
+            String prefix = "hls/" + baseName + "/";
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(hlsDir)) {
+                files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            CompletableFuture.allOf(files.stream()
+                    .map(file -> CompletableFuture.runAsync(() -> uploadHlsFile(file,
+                            prefix + hlsDir.relativize(file).toString().replace(File.separatorChar, '/')), uploadExecutor))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+
+            log.info("Uploaded HLS ladder {} with renditions {}", prefix, rungs);
+            return prefix + "master.m3u8";
+
+        } catch (IOException | CompletionException e) {
+            log.error("Failed to generate HLS ladder for {}", baseName, e);
+            return null;
+        }
+    }
+
+    private List<String> buildHlsArgs(String videoSource, Path hlsDir, List<Integer> rungs, boolean hasAudio) {
+        List<String> args = new ArrayList<>(List.of("-y", "-v", "error", "-i", videoSource));
+
+        StringBuilder filter = new StringBuilder("[0:v]split=").append(rungs.size());
+        for (int i = 0; i < rungs.size(); i++) {
+            filter.append("[s").append(i).append("]");
+        }
+        for (int i = 0; i < rungs.size(); i++) {
+            filter.append(";[s").append(i).append("]scale=").append(shortSideScale(rungs.get(i))).append("[v").append(i).append("]");
+        }
+        args.add("-filter_complex");
+        args.add(filter.toString());
+
+        StringJoiner streamMap = new StringJoiner(" ");
+        for (int i = 0; i < rungs.size(); i++) {
+            int kbps = bitrateKbps(rungs.get(i));
+            args.addAll(List.of(
+                    "-map", "[v" + i + "]",
+                    "-c:v:" + i, "libx264",
+                    "-b:v:" + i, kbps + "k",
+                    "-maxrate:v:" + i, (kbps * 107 / 100) + "k",
+                    "-bufsize:v:" + i, (kbps * 3 / 2) + "k"));
+            if (hasAudio) {
+                args.addAll(List.of("-map", "0:a:0", "-c:a:" + i, "aac", "-b:a:" + i, "128k"));
+                streamMap.add("v:" + i + ",a:" + i);
+            } else {
+                streamMap.add("v:" + i);
+            }
+        }
+
+        String segmentSeconds = String.valueOf(hlsSegmentSeconds);
+        args.addAll(List.of(
+                "-preset", "veryfast",
+                "-threads", String.valueOf(transcodeScheduler.getThreadsPerEncode()),
+                "-pix_fmt", "yuv420p",
+                // Keyframes on segment boundaries keep renditions switchable at every segment.
+                "-force_key_frames", "expr:gte(t,n_forced*" + segmentSeconds + ")",
+                "-f", "hls",
+                "-hls_time", segmentSeconds,
+                "-hls_playlist_type", "vod",
+                "-hls_flags", "independent_segments",
+                "-hls_segment_filename", hlsDir.resolve("v%v/segment_%03d.ts").toString(),
+                "-master_pl_name", "master.m3u8",
+                "-var_stream_map", streamMap.toString(),
+                hlsDir.resolve("v%v/index.m3u8").toString()));
+        return args;
+    }
+
+    /**
+     * Scales the short side to {@code size}. Orientation is decided by ffmpeg on the frames it actually
+     * scales, which are already autorotated, so phone clips stored as landscape with a rotation tag work too.
+     */
+    static String shortSideScale(int size) {
+        return "w='if(gt(iw,ih),-2," + size + ")':h='if(gt(iw,ih)," + size + ",-2)'";
+    }
+
+    /**
+     * Scales the long side to {@code size}, deciding orientation on the autorotated frames like {@link #shortSideScale}.
+     */
+    static String longSideScale(int size) {
+        return "w='if(gte(iw,ih)," + size + ",-2)':h='if(gte(iw,ih),-2," + size + ")'";
+    }
+
+    private int bitrateKbps(int size) {
+        return switch (size) {
+            case 240 -> 400;
+            case 360 -> 700;
+            case 480 -> 1000;
+            case 720 -> 2800;
+            case 1080 -> 5000;
+            default -> Math.max(300, size * size / 230);
+        };
+    }
+
+    private void uploadHlsFile(Path file, String key) {
+        String contentType = key.endsWith(".m3u8") ? "application/vnd.apple.mpegurl" : "video/mp2t";
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .cacheControl("public, max-age=31536000, immutable")
+                .build();
+        s3Client.putObject(putRequest, RequestBody.fromFile(file));
+    }
+
+    private void uploadVideo(Path videoPath, String videoFileName) {
+        log.info("Uploading video to S3/R2 as: {}", videoFileName);
+
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(videoFileName)
+                .contentType("video/mp4")
+                .build();
+
+        s3Client.putObject(putRequest, RequestBody.fromFile(videoPath));
+        log.info("Video uploaded successfully: {}", videoFileName);
+    }
+
+    /**
+     * Clip length in seconds, or 0 when it cannot be determined.
+     */
+    public double probeDuration(String videoSource) {
+        try {
+            return ffmpegToolkit.probe(videoSource).getFormat().duration;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not probe duration of {}: {}", videoSource, e.getMessage());
+            return 0;
+        }
+    }
+
+    TranscodePlan planTranscode(String videoSource) throws IOException {
+        FFmpegProbeResult probe = ffmpegToolkit.probe(videoSource);
+
+        FFmpegStream video = probe.getStreams().stream()
+                .filter(stream -> stream.codec_type == CodecType.VIDEO)
+                .findFirst()
+                .orElseThrow(() -> new IOException("No video stream in " + videoSource));
+        FFmpegStream audio = probe.getStreams().stream()
+                .filter(stream -> stream.codec_type == CodecType.AUDIO)
+                .findFirst()
+                .orElse(null);
+
+        long bitRate = video.bit_rate > 0 ? video.bit_rate : probe.getFormat().bit_rate;
+        boolean copyVideo = "h264".equals(video.codec_name)
+                && ("yuv420p".equals(video.pix_fmt) || "yuvj420p".equals(video.pix_fmt))
+                && Math.max(video.width, video.height) <= transcodeMaxDimension
+                && (bitRate <= 0 || bitRate <= transcodeMaxBitrateKbps * 1000L);
+        boolean copyAudio = audio != null && "aac".equals(audio.codec_name);
+
+        TranscodePlan plan = new TranscodePlan(copyVideo, copyAudio, audio != null, video.width, video.height);
+        log.info("Transcode plan for {}: video {} ({} {} {}x{} {} b/s), audio {}", videoSource,
+                copyVideo ? "copy" : "encode", video.codec_name, video.pix_fmt, video.width, video.height, bitRate,
+                audio == null ? "none" : copyAudio ? "copy" : "encode " + audio.codec_name);
+        return plan;
+    }
+
+    /**
+     * Writes a faststart MP4, copying every stream the plan allows and encoding only the rest,
+     * so a phone upload that is already H.264/AAC costs a container rewrite instead of a full encode.
+     */
+    private void convertToMp4(String videoSource, Path output, TranscodePlan plan) throws IOException {
+        List<String> args = new ArrayList<>(List.of("-y", "-v", "error", "-i", videoSource, "-map", "0:v:0"));
+        if (plan.hasAudio) {
+            args.addAll(List.of("-map", "0:a:0"));
+        }
+
+        if (plan.copyVideo) {
+            args.addAll(List.of("-c:v", "copy"));
+        } else {
+            args.addAll(List.of("-c:v", "libx264", "-pix_fmt", "yuv420p", "-preset", "medium", "-crf", "23",
+                    "-threads", String.valueOf(transcodeScheduler.getThreadsPerEncode()),
+                    "-maxrate", transcodeMaxBitrateKbps + "k", "-bufsize", (transcodeMaxBitrateKbps * 2) + "k"));
+            if (Math.max(plan.width, plan.height) > transcodeMaxDimension) {
+                args.addAll(List.of("-vf", "scale=" + longSideScale(transcodeMaxDimension)));
+            }
+        }
+        if (plan.hasAudio) {
+            args.addAll(plan.copyAudio ? List.of("-c:a", "copy") : List.of("-c:a", "aac", "-b:a", "128k"));
+        }
+        args.addAll(List.of("-movflags", "+faststart", "-f", "mp4", output.toString()));
+
+        try {
+            log.info("Starting FFmpeg {}...", plan.isRemuxOnly() ? "remux" : "conversion");
+            ffmpegToolkit.run(args);
+            log.info("FFmpeg conversion completed successfully");
         } catch (IOException e) {
             log.error("Video conversion failed", e);
             throw new IOException("Video conversion failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Walks the top-level MP4 boxes and reports whether {@code moov} comes before {@code mdat}.
+     * Box payloads are skipped, so only headers are actually read.
+     */
+    static boolean isFastStart(InputStream in) throws IOException {
+        byte[] header = new byte[8];
+        while (in.readNBytes(header, 0, 8) == 8) {
+            long size = ((header[0] & 0xFFL) << 24) | ((header[1] & 0xFFL) << 16)
+                    | ((header[2] & 0xFFL) << 8) | (header[3] & 0xFFL);
+            String type = new String(header, 4, 4, StandardCharsets.ISO_8859_1);
+            if (type.equals("moov")) {
+                return true;
+            }
+            if (type.equals("mdat")) {
+                return false;
+            }
+            long headerSize = 8;
+            if (size == 1) {
+                byte[] largeSize = in.readNBytes(8);
+                if (largeSize.length < 8) {
+                    return false;
+                }
+                size = ByteBuffer.wrap(largeSize).getLong();
+                headerSize = 16;
+            }
+            if (size < headerSize) {
+                // size 0 means "to the end of file"; anything else is not a box we can walk past.
+                return false;
+            }
+            try {
+                in.skipNBytes(size - headerSize);
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void multipartUpload(InputStream in, String key, String contentType) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        // Bounds memory per upload to maxPartsInFlight * part size.
+        Semaphore inFlight = new Semaphore(uploadMaxPartsInFlight);
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            byte[] chunk;
+            while ((chunk = in.readNBytes(uploadPartSizeBytes())).length > 0) {
+                inFlight.acquire();
+                int number = partNumber++;
+                byte[] body = chunk;
+                parts.add(CompletableFuture.supplyAsync(() -> uploadPart(key, uploadId, number, body), uploadExecutor)
+                        .whenComplete((part, error) -> inFlight.release()));
+            }
+
+            List<CompletedPart> completedParts = parts.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortMultipartUpload(key, uploadId);
+            throw new IOException("Multipart upload interrupted: " + key, e);
+        } catch (IOException | RuntimeException e) {
+            abortMultipartUpload(key, uploadId);
+            throw e;
+        }
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, byte[] body) {
+        UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) body.length)
+                        .build(),
+                RequestBody.fromBytes(body));
+        return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+    }
+
+    private void abortMultipartUpload(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Failed to abort multipart upload {} for {}", uploadId, key, e);
+        }
+    }
+
+    private int uploadPartSizeBytes() {
+        return uploadPartSizeMb * 1024 * 1024;
+    }
+
+    private String newVideoFileName(String originalFileName) {
+        return System.currentTimeMillis() + "_" + originalFileName.replaceAll("\\.[^.]+$", ".mp4");
+    }
+
     private String getFileExtension(String filename) {
         if (filename == null || !filename.contains(".")) {
             return "";
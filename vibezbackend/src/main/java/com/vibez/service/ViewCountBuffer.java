@@ -0,0 +1,95 @@
+package com.vibez.service;
+
+import com.vibez.repository.ReelCounterRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Absorbs reel views in memory and writes them to {@code reels.view_count} in periodic batches,
+ * so a popular reel costs one UPDATE per flush interval instead of a row lock per play.
+ */
+@Slf4j
+@Component
+public class ViewCountBuffer {
+
+    private final ReelCounterRepository reelCounterRepository;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter flushedViews;
+
+    private volatile long lastFlushMillis = System.currentTimeMillis();
+
+    public ViewCountBuffer(ReelCounterRepository reelCounterRepository, MeterRegistry meterRegistry) {
+        this.reelCounterRepository = reelCounterRepository;
+        this.flushTimer = Timer.builder("vibez.views.flush")
+                .description("Time spent writing buffered view counts")
+                .register(meterRegistry);
+        this.flushedViews = Counter.builder("vibez.views.flushed")
+                .description("Views written to the database")
+                .register(meterRegistry);
+        Gauge.builder("vibez.views.pending", this, ViewCountBuffer::pendingViews)
+                .description("Views recorded but not yet written")
+                .register(meterRegistry);
+        Gauge.builder("vibez.views.pending.reels", pending, Map::size)
+                .description("Reels with buffered views")
+                .register(meterRegistry);
+        TimeGauge.builder("vibez.views.flush.lag", this, TimeUnit.MILLISECONDS,
+                        buffer -> System.currentTimeMillis() - buffer.lastFlushMillis)
+                .description("Time since the last successful flush")
+                .register(meterRegistry);
+    }
+
+    public void record(Long reelId) {
+        pending.computeIfAbsent(reelId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${vibez.views.flush-interval-ms:5000}")
+    public void flush() {
+        List<Map.Entry<Long, Long>> deltas = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.add(Map.entry(entry.getKey(), delta));
+            } else {
+                // Idle since the previous flush; an increment racing this removal is the only view that can be lost.
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            lastFlushMillis = System.currentTimeMillis();
+            return;
+        }
+
+        deltas.sort(Map.Entry.comparingByKey());
+        try {
+            flushTimer.record(() -> reelCounterRepository.addViewCounts(deltas));
+            flushedViews.increment(deltas.stream().mapToLong(Map.Entry::getValue).sum());
+            lastFlushMillis = System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} buffered view counts, keeping them for the next run", deltas.size(), e);
+            deltas.forEach(delta -> pending.computeIfAbsent(delta.getKey(), id -> new LongAdder()).add(delta.getValue()));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private double pendingViews() {
+        return pending.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+}
@@ -0,0 +1,52 @@
+package com.vibez.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+    @Test
+    void roundTripsSortKeyAndReelId() {
+        FeedCursor decoded = FeedCursor.decode(new FeedCursor(42, 7).encode());
+
+        assertThat(decoded.getSortKey()).isEqualTo(42);
+        assertThat(decoded.getReelId()).isEqualTo(7);
+        assertThat(decoded.getSnapshotAt()).isZero();
+        assertThat(decoded.isStart()).isFalse();
+    }
+
+    @Test
+    void roundTripsScoreBitsAndSnapshot() {
+        long scoreBits = Double.doubleToLongBits(-3.25);
+
+        FeedCursor decoded = FeedCursor.decode(new FeedCursor(scoreBits, 11, 1_700_000_000_000L).encode());
+
+        assertThat(Double.longBitsToDouble(decoded.getSortKey())).isEqualTo(-3.25);
+        assertThat(decoded.getReelId()).isEqualTo(11);
+        assertThat(decoded.getSnapshotAt()).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    void missingCursorStartsFromTheTop() {
+        assertThat(FeedCursor.decode(null).isStart()).isTrue();
+        assertThat(FeedCursor.decode("  ").isStart()).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertThatThrownBy(() -> FeedCursor.decode("not a cursor!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(encodeRaw("42"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(encodeRaw("42:abc"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(encodeRaw("1:2:3:4"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(encodeRaw(":7"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.vibez.service;
+
+import com.vibez.model.Reel;
+import com.vibez.model.User;
+import com.vibez.repository.ReelRepository;
+import com.vibez.service.RecommendationIndex.ScoredReel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RecommendationIndexTest {
+
+    private RecommendationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RecommendationIndex(mock(ReelRepository.class));
+        index(1L, 5);
+        index(2L, 9);
+        index(3L, 5);
+        index(4L, 1);
+        index(5L, 9);
+    }
+
+    @Test
+    void ranksByScoreThenByNewerId() {
+        List<ScoredReel> ranked = index.topK(reel -> reel.getLikeCount(), reelId -> false, FeedCursor.start(), 10);
+
+        assertThat(ranked).extracting(ScoredReel::getReelId).containsExactly(5L, 2L, 3L, 1L, 4L);
+    }
+
+    @Test
+    void keepsOnlyTheBestLimit() {
+        List<ScoredReel> ranked = index.topK(reel -> reel.getLikeCount(), reelId -> false, FeedCursor.start(), 3);
+
+        assertThat(ranked).extracting(ScoredReel::getReelId).containsExactly(5L, 2L, 3L);
+    }
+
+    @Test
+    void continuesAfterCursorWithinTies() {
+        FeedCursor after = new FeedCursor(Double.doubleToLongBits(5.0), 3L);
+
+        List<ScoredReel> ranked = index.topK(reel -> reel.getLikeCount(), reelId -> false, after, 10);
+
+        assertThat(ranked).extracting(ScoredReel::getReelId).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void skipsExcludedReels() {
+        List<ScoredReel> ranked = index.topK(reel -> reel.getLikeCount(), reelId -> reelId == 2L,
+                FeedCursor.start(), 3);
+
+        assertThat(ranked).extracting(ScoredReel::getReelId).containsExactly(5L, 3L, 1L);
+    }
+
+    private void index(long reelId, int likeCount) {
+        User author = new User();
+        author.setId(100L + reelId);
+        Reel reel = new Reel();
+        reel.setId(reelId);
+        reel.setUser(author);
+        reel.setTags(new HashSet<>());
+        reel.setLikeCount(likeCount);
+        index.indexReel(reel);
+    }
+}
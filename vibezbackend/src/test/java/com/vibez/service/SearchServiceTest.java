@@ -0,0 +1,45 @@
+package com.vibez.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchServiceTest {
+
+    @Test
+    void tokenizesIntoDistinctLowerCaseWords() {
+        assertThat(SearchService.tokenize("Hip-Hop  DANCE hip")).containsExactly("hip", "hop", "dance");
+        assertThat(SearchService.tokenize("Zażółć 2024")).containsExactly("zażółć", "2024");
+    }
+
+    @Test
+    void tokenizesNothingFromEmptyOrPunctuation() {
+        assertThat(SearchService.tokenize(null)).isEmpty();
+        assertThat(SearchService.tokenize("")).isEmpty();
+        assertThat(SearchService.tokenize("!!! ... ###")).isEmpty();
+    }
+
+    @Test
+    void buildsPrefixQueryWithWeights() {
+        assertThat(SearchService.toPrefixQuery("Dance cats", "", 8)).isEqualTo("dance:* & cats:*");
+        assertThat(SearchService.toPrefixQuery("#Dance", "A", 8)).isEqualTo("dance:*A");
+    }
+
+    @Test
+    void stripsTsqueryOperators() {
+        assertThat(SearchService.toPrefixQuery("dance & !cats:* | (x) <-> 'y'", "", 8))
+                .isEqualTo("dance:* & cats:* & x:* & y:*");
+        assertThat(SearchService.toPrefixQuery("it's", "", 8)).isEqualTo("it:* & s:*");
+    }
+
+    @Test
+    void limitsTermCount() {
+        assertThat(SearchService.toPrefixQuery("a b c d", "", 2)).isEqualTo("a:* & b:*");
+    }
+
+    @Test
+    void returnsNullWhenNothingIsSearchable() {
+        assertThat(SearchService.toPrefixQuery("&|!", "", 8)).isNull();
+        assertThat(SearchService.toPrefixQuery(null, "A", 8)).isNull();
+    }
+}
@@ -0,0 +1,44 @@
+package com.vibez.service;
+
+import com.vibez.repository.TagRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TagServiceTest {
+
+    private final TagService tagService = new TagService(mock(TagRepository.class), 100, 50, 30);
+
+    @Test
+    void stripsHashAndLowerCases() {
+        assertThat(tagService.normalize("#Dance")).isEqualTo("dance");
+        assertThat(tagService.normalize("  ##Dance ")).isEqualTo("dance");
+    }
+
+    @Test
+    void foldsFullWidthInput() {
+        assertThat(tagService.normalize("ＤＡＮＣＥ")).isEqualTo("dance");
+        assertThat(tagService.normalize("＃ｄａｎｃｅ")).isEqualTo("dance");
+    }
+
+    @Test
+    void removesWhitespaceControlCharactersAndCommas() {
+        assertThat(tagService.normalize("hip hop")).isEqualTo("hiphop");
+        assertThat(tagService.normalize("da\u200Bn\tce")).isEqualTo("dance");
+        assertThat(tagService.normalize("dan,ce")).isEqualTo("dance");
+        assertThat(tagService.normalize("dan，ce")).isEqualTo("dance");
+    }
+
+    @Test
+    void capsLengthInCodePoints() {
+        assertThat(tagService.normalize("a".repeat(60))).isEqualTo("a".repeat(50));
+        assertThat(tagService.normalize("😀".repeat(60))).isEqualTo("😀".repeat(50));
+    }
+
+    @Test
+    void nullAndBlankBecomeEmpty() {
+        assertThat(tagService.normalize(null)).isEmpty();
+        assertThat(tagService.normalize(" # ")).isEmpty();
+    }
+}
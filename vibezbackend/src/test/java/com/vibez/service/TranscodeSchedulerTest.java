@@ -0,0 +1,76 @@
+package com.vibez.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TranscodeSchedulerTest {
+
+    private TranscodeScheduler scheduler;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shortClipsRunBeforeLongOnesAndFifoWithinALane() throws InterruptedException {
+        scheduler = new TranscodeScheduler(1, 1, 10, 30, new SimpleMeterRegistry());
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(5);
+        scheduler.submit(10, this::block);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        scheduler.submit(120, record(order, "long-1", done));
+        scheduler.submit(0, record(order, "unknown", done));
+        scheduler.submit(20, record(order, "short-1", done));
+        scheduler.submit(120, record(order, "long-2", done));
+        scheduler.submit(30, record(order, "short-2", done));
+        release.countDown();
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly("short-1", "short-2", "long-1", "unknown", "long-2");
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() throws InterruptedException {
+        scheduler = new TranscodeScheduler(1, 1, 2, 30, new SimpleMeterRegistry());
+        scheduler.submit(10, this::block);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        scheduler.submit(10, () -> { });
+        scheduler.submit(120, () -> { });
+
+        assertThatThrownBy(() -> scheduler.submit(10, () -> { })).isInstanceOf(TaskRejectedException.class);
+    }
+
+    private void block() {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Runnable record(List<String> order, String name, CountDownLatch done) {
+        return () -> {
+            order.add(name);
+            done.countDown();
+        };
+    }
+}
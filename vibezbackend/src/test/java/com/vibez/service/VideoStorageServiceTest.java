@@ -0,0 +1,65 @@
+package com.vibez.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VideoStorageServiceTest {
+
+    @Test
+    void moovBeforeMdatIsFastStart() throws IOException {
+        byte[] mp4 = concat(box("ftyp", 16), box("moov", 64), box("mdat", 1024));
+
+        assertThat(VideoStorageService.isFastStart(new ByteArrayInputStream(mp4))).isTrue();
+    }
+
+    @Test
+    void mdatBeforeMoovIsNotFastStart() throws IOException {
+        byte[] mp4 = concat(box("ftyp", 16), box("mdat", 1024), box("moov", 64));
+
+        assertThat(VideoStorageService.isFastStart(new ByteArrayInputStream(mp4))).isFalse();
+    }
+
+    @Test
+    void walksPastLargeSizeBoxes() throws IOException {
+        byte[] mp4 = concat(box("ftyp", 16), largeBox("free", 40), box("moov", 64), box("mdat", 1024));
+
+        assertThat(VideoStorageService.isFastStart(new ByteArrayInputStream(mp4))).isTrue();
+    }
+
+    @Test
+    void truncatedOrUnsizedBoxesAreNotFastStart() throws IOException {
+        byte[] truncated = concat(box("ftyp", 16), new byte[] {0, 0, 0x10, 0, 'f', 'r', 'e', 'e'});
+        byte[] toEndOfFile = concat(box("ftyp", 16), header(0, "free"), box("moov", 64));
+
+        assertThat(VideoStorageService.isFastStart(new ByteArrayInputStream(truncated))).isFalse();
+        assertThat(VideoStorageService.isFastStart(new ByteArrayInputStream(toEndOfFile))).isFalse();
+    }
+
+    private static byte[] box(String type, int size) {
+        return concat(header(size, type), new byte[size - 8]);
+    }
+
+    private static byte[] largeBox(String type, int size) {
+        byte[] largeSize = ByteBuffer.allocate(8).putLong(size).array();
+        return concat(header(1, type), largeSize, new byte[size - 16]);
+    }
+
+    private static byte[] header(int size, String type) {
+        return ByteBuffer.allocate(8).putInt(size).put(type.getBytes(StandardCharsets.ISO_8859_1)).array();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,80 @@
+package com.vibez.service;
+
+import com.vibez.repository.ReelCounterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class ViewCountBufferTest {
+
+    private final ReelCounterRepository repository = mock(ReelCounterRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ViewCountBuffer buffer = new ViewCountBuffer(repository, meterRegistry);
+
+    @Test
+    void flushesSummedDeltasOrderedByReelId() {
+        buffer.record(2L);
+        buffer.record(1L);
+        buffer.record(2L);
+
+        buffer.flush();
+
+        assertThat(capturedBatches()).containsExactly(List.of(Map.entry(1L, 1L), Map.entry(2L, 2L)));
+    }
+
+    @Test
+    void failedBatchIsRetriedOnceWithLaterViewsMerged() {
+        List<List<Map.Entry<Long, Long>>> written = new ArrayList<>();
+        doThrow(new QueryTimeoutException("timeout"))
+                .doAnswer(invocation -> written.add(List.copyOf(invocation.getArgument(0))))
+                .when(repository).addViewCounts(anyList());
+
+        buffer.record(1L);
+        buffer.record(1L);
+        buffer.record(2L);
+        buffer.flush();
+
+        buffer.record(1L);
+        buffer.flush();
+        buffer.flush();
+
+        verify(repository, times(2)).addViewCounts(anyList());
+        assertThat(written).containsExactly(List.of(Map.entry(1L, 3L), Map.entry(2L, 1L)));
+        assertThat(meterRegistry.get("vibez.views.flushed").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("vibez.views.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void idleReelsAreDroppedAndNothingIsWritten() {
+        doAnswer(invocation -> null).when(repository).addViewCounts(anyList());
+        buffer.record(5L);
+        buffer.flush();
+
+        buffer.flush();
+
+        verify(repository).addViewCounts(anyList());
+        verifyNoMoreInteractions(repository);
+        assertThat(meterRegistry.get("vibez.views.pending.reels").gauge().value()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Map.Entry<Long, Long>>> capturedBatches() {
+        ArgumentCaptor<List<Map.Entry<Long, Long>>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).addViewCounts(captor.capture());
+        return captor.getAllValues();
+    }
+}
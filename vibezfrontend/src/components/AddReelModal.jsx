@@ -311,6 +311,25 @@ const VideoPreviewSelector = ({ videoFile, onFramesSelect, onThumbnailSelect, th
     );
 };
 
+const PROCESSING_POLL_INTERVAL_MS = 3000;
+const PROCESSING_POLL_ATTEMPTS = 200;
+
+const waitForProcessing = async (reelId) => {
+    for (let attempt = 0; attempt < PROCESSING_POLL_ATTEMPTS; attempt++) {
+        await new Promise(resolve => setTimeout(resolve, PROCESSING_POLL_INTERVAL_MS));
+        try {
+            const response = await apiClient(`/reels/${reelId}/processing-status`);
+            const status = await response.json();
+            if (status.status === 'READY' || status.status === 'FAILED') {
+                return status;
+            }
+        } catch (err) {
+            console.error("Error checking processing status:", err);
+        }
+    }
+    return null;
+};
+
 export default function AddReelModal({ user, onClose, onReelAdded }) {
     const { t } = useTranslation();
     const [videoFile, setVideoFile] = useState(null);
@@ -386,6 +405,16 @@ export default function AddReelModal({ user, onClose, onReelAdded }) {
                 throw new Error(t('saveReelError', { error: errorText }));
             }
 
+            const savedReel = await saveResponse.json();
+            setUploadProgress(t('videoProcessingProgress'));
+            const processing = await waitForProcessing(savedReel.id);
+            if (!processing) {
+                throw new Error(t('videoProcessingTimeout'));
+            }
+            if (processing.status === 'FAILED') {
+                throw new Error(t('videoProcessingError', { error: processing.error || '' }));
+            }
+
             setUploadProgress(t('publishSuccess'));
             setTimeout(() => {
                 onReelAdded();
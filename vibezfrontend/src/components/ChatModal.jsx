@@ -115,7 +115,7 @@ export default function ChatModal({
 
         searchTimeoutRef.current = setTimeout(async () => {
             try {
-                const response = await apiClient(`/users/search?query=${encodeURIComponent(query)}`);
+                const response = await apiClient(`/search/users/autocomplete?prefix=${encodeURIComponent(query)}`);
                 if (response.ok) {
                     const data = await response.json();
                     const filtered = data.filter(u =>
@@ -279,7 +279,6 @@ export default function ChatModal({
                                     <AvatarPlaceholder username={user.username} className="w-8 h-8 mr-3" />
                                     <div className="flex-1">
                                         <p className="font-semibold text-sm">{user.username}</p>
-                                        <p className="text-xs text-gray-400">{user.email}</p>
                                     </div>
                                     {isGroupMode && <PlusIcon />}
                                 </div>
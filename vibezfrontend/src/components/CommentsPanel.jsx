@@ -2,6 +2,7 @@ import React, { useState, useEffect, useRef, useMemo } from 'react';
 import { Link } from 'react-router-dom';
 import { useTranslation } from 'react-i18next';
 import { apiClient } from '../api/apiClient';
+import { pickRendition } from '../utils/imageRenditions';
 
 const SmallHeartIcon = ({ isLiked, disabled }) => (
     <svg
@@ -80,7 +81,7 @@ const CommentItem = ({
                 )}
                 <Link to={`/profile/${comment.user.username}`}>
                     <img
-                        src={comment.user.profilePictureUrl || `https://ui-avatars.com/api/?name=${comment.user.username}&background=333&color=fff&size=40`}
+                        src={pickRendition(comment.user.profilePictureRenditions, 64, comment.user.profilePictureUrl) || `https://ui-avatars.com/api/?name=${comment.user.username}&background=333&color=fff&size=40`}
                         alt="avatar"
                         className="w-10 h-10 rounded-full hover:opacity-80 transition-opacity cursor-pointer"
                     />
@@ -215,6 +216,9 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
     const [newCommentText, setNewCommentText] = useState("");
 
     const [focusStackIds, setFocusStackIds] = useState([]);
+    const [comments, setComments] = useState([]);
+    const [commentsPage, setCommentsPage] = useState(0);
+    const [hasMoreComments, setHasMoreComments] = useState(false);
 
     const textInputRef = useRef(null);
 
@@ -227,9 +231,9 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
                 traverse(comment.replies);
             }
         };
-        traverse(reel?.comments);
+        traverse(comments);
         return map;
-    }, [reel]);
+    }, [comments]);
 
     const currentFocusedCommentId = focusStackIds.length > 0 ? focusStackIds[focusStackIds.length - 1] : null;
     const currentFocusedComment = currentFocusedCommentId ? allCommentsMap.get(currentFocusedCommentId) : null;
@@ -249,6 +253,28 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
         }
     }, [isOpen, currentUser, reel]);
 
+    const loadComments = async (page = 0) => {
+        if (!reel?.id) return;
+        try {
+            const response = await apiClient(`/comments?reelId=${reel.id}&page=${page}&size=20`);
+            const data = await response.json();
+            setComments(prev => page === 0 ? data.items : [...prev, ...data.items]);
+            setCommentsPage(data.page);
+            setHasMoreComments(data.hasNext);
+        } catch (error) {
+            console.error("Error fetching comments:", error);
+        }
+    };
+
+    useEffect(() => {
+        if (isOpen) {
+            loadComments(0);
+        } else {
+            setComments([]);
+            setHasMoreComments(false);
+        }
+    }, [isOpen, reel?.id]);
+
     useEffect(() => {
         if (!isOpen) {
             setFocusStackIds([]);
@@ -304,7 +330,8 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
             await apiClient(`/comments?${params.toString()}`, {
                 method: 'POST'
             });
-            onCommentChange();
+            await loadComments(0);
+            if (!parentId) onCommentChange(1);
             setNewCommentText("");
             setReplyingTo(null);
         } catch (error) {
@@ -319,15 +346,17 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
                 method: 'PUT',
                 body: JSON.stringify({ text: text })
             });
-            onCommentChange();
+            await loadComments(0);
         } catch (error) { console.error("Error updating comment:", error); }
     };
 
     const handleDeleteComment = async (commentId) => {
         const params = new URLSearchParams({ username: currentUser.username });
         try {
+            const wasTopLevel = comments.some(comment => comment.id === commentId);
             await apiClient(`/comments/${commentId}?${params.toString()}`, { method: 'DELETE' });
-            onCommentChange();
+            await loadComments(0);
+            if (wasTopLevel) onCommentChange(-1);
 
             setFocusStackIds(prevStack => {
                 const newStack = prevStack.filter(id => id !== commentId);
@@ -341,7 +370,7 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
         const params = new URLSearchParams({ username: currentUser.username });
         try {
             await apiClient(`/comments/${commentId}/pin?${params.toString()}`, { method: 'POST' });
-            onCommentChange();
+            await loadComments(0);
         } catch (error) { console.error("Error pinning comment:", error); }
     };
 
@@ -364,8 +393,7 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
         setFocusStackIds([]);
     };
 
-    const allComments = reel?.comments || [];
-    const sortedComments = [...allComments].sort((a, b) => {
+    const sortedComments = [...comments].sort((a, b) => {
         if (a.isPinned !== b.isPinned) return b.isPinned - a.isPinned;
         return b.likeCount - a.likeCount;
     });
@@ -381,7 +409,7 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
             <div className="p-4 border-b border-gray-700 flex justify-between items-center">
                 <div className="flex items-center gap-2">
                     <h2 className="font-bold text-lg">
-                        {currentFocusedComment ? t('thread') : t('commentsCount', { count: reel?.comments?.length || 0 })}
+                        {currentFocusedComment ? t('thread') : t('commentsCount', { count: reel?.commentCount || 0 })}
                     </h2>
                     {currentFocusedComment && (
                         <>
@@ -427,6 +455,14 @@ export default function CommentsPanel({ isOpen, onClose, reel, currentUser, onCo
                         isReply={false}
                     />
                 ))}
+                {!currentFocusedComment && hasMoreComments && (
+                    <button
+                        onClick={() => loadComments(commentsPage + 1)}
+                        className="w-full text-xs text-blue-400 hover:text-blue-300 py-2"
+                    >
+                        {t('showMore')}
+                    </button>
+                )}
             </div>
 
             <form onSubmit={handleAddComment} className="p-4 border-t border-gray-700">
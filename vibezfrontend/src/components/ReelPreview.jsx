@@ -1,5 +1,6 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { apiClient } from '../api/apiClient';
+import { pickRendition, renditionSrcSet } from '../utils/imageRenditions';
 
 const EyeIcon = () => (
     <svg className="w-3 h-3 md:w-4 md:h-4" fill="none" stroke="currentColor" viewBox="0 0 24 24">
@@ -152,7 +153,9 @@ const ReelPreview = ({ reel }) => {
             onMouseLeave={() => setIsHovering(false)}
         >
             <img
-                src={reel.thumbnailUrl || 'https://placehold.co/360x640/1a1a1a/ffffff?text=No+Thumbnail'}
+                src={pickRendition(reel.thumbnailRenditions, 256, reel.thumbnailUrl) || 'https://placehold.co/360x640/1a1a1a/ffffff?text=No+Thumbnail'}
+                srcSet={renditionSrcSet(reel.thumbnailRenditions)}
+                sizes="(max-width: 768px) 33vw, 256px"
                 alt={reel.description}
                 className={`w-full h-full object-cover transition-opacity duration-300 ${
                     showPreview ? 'opacity-0' : 'opacity-100'
@@ -2,6 +2,7 @@ import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { useTranslation } from 'react-i18next';
 import { apiClient } from '../api/apiClient';
+import { pickRendition } from '../utils/imageRenditions';
 import ReelPreview from './ReelPreview';
 
 const SearchIcon = () => ( <svg className="w-5 h-5 text-gray-400" fill="none" stroke="currentColor" viewBox="0 0 24 24"><path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M21 21l-6-6m2-5a7 7 0 11-14 0 7 7 0 0114 0z" /></svg> );
@@ -50,7 +51,8 @@ export default function SearchPanel({ isOpen, onClose }) {
                 const response = await apiClient(`${endpoint}?query=${encodeURIComponent(query)}`);
                 if (response.ok) {
                     const data = await response.json();
-                    setResults(data);
+                    // Reel searches are paginated slices, user searches plain lists.
+                    setResults(Array.isArray(data) ? data : data.items);
                 } else {
                     console.error("Błąd wyszukiwania");
                     setResults([]);
@@ -75,38 +77,52 @@ export default function SearchPanel({ isOpen, onClose }) {
         setResults([]);
     };
 
+    const renderUser = (user) => (
+        <Link
+            key={user.username}
+            to={`/profile/${user.username}`}
+            onClick={onClose}
+            className="flex items-center gap-3 p-2 hover:bg-white/5 rounded-lg transition-colors"
+        >
+            <div className="w-10 h-10 rounded-full bg-gray-800 flex-shrink-0 overflow-hidden flex items-center justify-center border border-gray-700">
+                {user.profilePictureUrl ? (
+                    <img src={pickRendition(user.profilePictureRenditions, 64, user.profilePictureUrl)} alt={user.username} className="w-full h-full object-cover" />
+                ) : (
+                    <PlaceholderUserIcon />
+                )}
+            </div>
+            <div className="flex-1 min-w-0">
+                <p className="text-sm font-bold text-white truncate">{user.username}</p>
+            </div>
+        </Link>
+    );
+
+    const renderReel = (reel) => (
+        <div key={reel.id} onClick={onClose}>
+            <ReelPreview reel={reel} />
+        </div>
+    );
+
     const renderUserList = () => (
         <div className="space-y-2">
-            {results.map((user) => (
-                <Link
-                    key={user.id}
-                    to={`/profile/${user.username}`}
-                    onClick={onClose}
-                    className="flex items-center gap-3 p-2 hover:bg-white/5 rounded-lg transition-colors"
-                >
-                    <div className="w-10 h-10 rounded-full bg-gray-800 flex-shrink-0 overflow-hidden flex items-center justify-center border border-gray-700">
-                        {user.profilePictureUrl ? (
-                            <img src={user.profilePictureUrl} alt={user.username} className="w-full h-full object-cover" />
-                        ) : (
-                            <PlaceholderUserIcon />
-                        )}
-                    </div>
-                    <div className="flex-1 min-w-0">
-                        <p className="text-sm font-bold text-white truncate">{user.username}</p>
-                        <p className="text-xs text-gray-400 truncate">{user.bio || user.email}</p>
-                    </div>
-                </Link>
-            ))}
+            {results.map(renderUser)}
         </div>
     );
 
     const renderReelGrid = () => (
         <div className="grid grid-cols-3 gap-1 md:gap-2">
-            {results.map((reel) => (
-                <div key={reel.id} onClick={onClose}>
-                    <ReelPreview reel={reel} />
+            {results.map(renderReel)}
+        </div>
+    );
+
+    // Top results keep the server ranking: users span a full row, reels fill the grid between them.
+    const renderTopResults = () => (
+        <div className="grid grid-cols-3 gap-1 md:gap-2">
+            {results.map((hit) => hit.type === 'USER' ? (
+                <div key={`user-${hit.user.username}`} className="col-span-3">
+                    {renderUser(hit.user)}
                 </div>
-            ))}
+            ) : renderReel(hit.reel))}
         </div>
     );
 
@@ -188,9 +204,11 @@ export default function SearchPanel({ isOpen, onClose }) {
                         </div>
                     ) : (
                         <div className="pt-2 pb-4">
-                            {(activeTab === 'users' || activeTab === 'top')
-                                ? renderUserList()
-                                : renderReelGrid()
+                            {activeTab === 'top'
+                                ? renderTopResults()
+                                : activeTab === 'users'
+                                    ? renderUserList()
+                                    : renderReelGrid()
                             }
                         </div>
                     )}
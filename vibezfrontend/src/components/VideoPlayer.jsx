@@ -12,6 +12,13 @@ const ShareIcon = () => (<svg className="w-8 h-8" fill="none" stroke="currentCol
 const EyeIcon = () => ( <svg className="w-5 h-5 text-gray-400" fill="none" stroke="currentColor" viewBox="0 0 24 24"><path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M15 12a3 3 0 11-6 0 3 3 0 016 0z" /><path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M2.458 12C3.732 7.943 7.523 5 12 5c4.478 0 8.268 2.943 9.542 7-1.274 4.057-5.064 7-9.542 7-4.477 0-8.268-2.943-9.542-7z" /></svg> );
 const AddIcon = () => ( <svg className="w-8 h-8" fill="none" stroke="currentColor" viewBox="0 0 24 24"><path strokeLinecap="round" strokeLinejoin="round" strokeWidth={1.5} d="M12 4v16m8-8H4" /></svg> );
 
+// Safari and iOS play HLS natively; other browsers keep the progressive MP4 until an HLS player is bundled.
+const SUPPORTS_NATIVE_HLS = typeof document !== 'undefined'
+    && document.createElement('video').canPlayType('application/vnd.apple.mpegurl') !== '';
+
+const getVideoSource = (video) =>
+    (SUPPORTS_NATIVE_HLS && video.manifestUrl) ? video.manifestUrl : video.videoUrl;
+
 export default function VideoPlayer({
                                         videos,
                                         volume,
@@ -127,7 +134,7 @@ export default function VideoPlayer({
                 ref={videoRef}
                 key={currentVideo.id}
                 className="w-full h-full object-cover"
-                src={currentVideo.videoUrl}
+                src={getVideoSource(currentVideo)}
                 muted={volume === 0}
                 playsInline
                 loop={isCommentsOpen}
@@ -159,7 +166,7 @@ export default function VideoPlayer({
                             }}
                             disabled={isTogglingLike}
                         />
-                        <InteractionButton icon={<CommentIcon />} count={currentVideo.comments?.length || 0} onClick={() => setIsCommentsOpen(true)} />
+                        <InteractionButton icon={<CommentIcon />} count={currentVideo.commentCount || 0} onClick={() => setIsCommentsOpen(true)} />
                         <InteractionButton
                             icon={<BookmarkIcon />}
                             onClick={(e) => {
@@ -229,7 +236,7 @@ const ExpandedDetailsPanel = ({ video, isVisible, onClose }) => {
                         <p className="font-bold text-gray-400">{t('tags')}</p>
                         <div className="flex flex-wrap gap-1 mt-1">
                             {video.tags.map(tag => (
-                                <span key={tag.id} className="bg-gray-700 text-gray-200 text-xs px-2 py-0.5 rounded-full">#{tag.name}</span>
+                                <span key={tag} className="bg-gray-700 text-gray-200 text-xs px-2 py-0.5 rounded-full">#{tag}</span>
                             ))}
                         </div>
                     </div>
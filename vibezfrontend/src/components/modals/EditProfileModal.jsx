@@ -12,20 +12,43 @@ export default function EditProfileModal({ user, onClose, onProfileUpdate }) {
     const [error, setError] = useState('');
     const navigate = useNavigate();
 
+    // The file goes straight to storage through a presigned URL; the backend only verifies and records it.
+    const uploadProfilePicture = async (file) => {
+        const params = new URLSearchParams({ fileName: file.name, contentType: file.type });
+        const urlRes = await apiClient(`/users/${user.username}/profile-picture/upload-url?${params}`, {
+            method: 'POST'
+        });
+        const { uploadUrl, objectKey } = await urlRes.json();
+
+        const putRes = await fetch(uploadUrl, {
+            method: 'PUT',
+            headers: { 'Content-Type': file.type },
+            body: file
+        });
+        if (!putRes.ok) {
+            throw new Error(t('updateProfileFailed'));
+        }
+
+        await apiClient(`/users/${user.username}/profile-picture/confirm`, {
+            method: 'POST',
+            body: JSON.stringify({ objectKey })
+        });
+    };
+
     const handleSubmit = async (e) => {
         e.preventDefault();
         setIsUploading(true);
         setError('');
 
         try {
+            if (profilePicFile) {
+                await uploadProfilePicture(profilePicFile);
+            }
+
             const formData = new FormData();
             formData.append('username', newUsername);
             formData.append('bio', bio);
 
-            if (profilePicFile) {
-                formData.append('profilePicture', profilePicFile);
-            }
-
             const updateRes = await apiClient(`/users/${user.username}`, {
                 method: 'PUT',
                 body: formData
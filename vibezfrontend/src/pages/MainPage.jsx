@@ -39,15 +39,24 @@ export default function MainPage({
     const [isShareModalOpen, setIsShareModalOpen] = useState(false);
     const [reelToShare, setReelToShare] = useState(null);
 
-    const fetchVideos = async (resetIndex = true) => {
-        try {
-            let url = `/reels/feed?type=${activeFeed}`;
+    const [nextCursor, setNextCursor] = useState(null);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
 
-            if (appUser?.username) {
-                url += `&username=${appUser.username}`;
-            }
+    const buildFeedUrl = (cursor) => {
+        let url = `/reels/feed?type=${activeFeed}`;
 
-            const response = await apiClient(url);
+        if (appUser?.username) {
+            url += `&username=${appUser.username}`;
+        }
+        if (cursor) {
+            url += `&cursor=${encodeURIComponent(cursor)}`;
+        }
+        return url;
+    };
+
+    const fetchVideos = async (resetIndex = true) => {
+        try {
+            const response = await apiClient(buildFeedUrl(null));
 
             if (!response.ok) {
                 if (response.status === 401 && activeFeed === 'FOLLOWING') {
@@ -59,16 +68,44 @@ export default function MainPage({
             }
 
             const data = await response.json();
-            setVideos(data);
+            setVideos(data.items);
+            setNextCursor(data.nextCursor);
             if (resetIndex) {
                 setCurrentVideoIndex(0);
+            } else {
+                setCurrentVideoIndex(prev => Math.min(prev, Math.max(data.items.length - 1, 0)));
             }
         } catch (error) {
             console.error("Błąd podczas pobierania filmów:", error);
             setVideos([]);
+            setNextCursor(null);
         }
     };
 
+    const fetchMoreVideos = async () => {
+        if (!nextCursor || isLoadingMore) return;
+        setIsLoadingMore(true);
+        try {
+            const response = await apiClient(buildFeedUrl(nextCursor));
+            const data = await response.json();
+            setVideos(prevVideos => {
+                const knownIds = new Set(prevVideos.map(video => video.id));
+                return [...prevVideos, ...data.items.filter(video => !knownIds.has(video.id))];
+            });
+            setNextCursor(data.nextCursor);
+        } catch (error) {
+            console.error("Błąd podczas pobierania kolejnych filmów:", error);
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
+
+    useEffect(() => {
+        if (videos.length > 0 && currentVideoIndex >= videos.length - 2) {
+            fetchMoreVideos();
+        }
+    }, [currentVideoIndex, videos.length]);
+
     useEffect(() => {
         fetchVideos(true);
         if (appUser?.username) {
@@ -225,7 +262,16 @@ export default function MainPage({
                 onClose={() => setIsCommentsOpen(false)}
                 reel={videos[currentVideoIndex]}
                 currentUser={appUser}
-                onCommentChange={() => fetchVideos(false)}
+                onCommentChange={(delta) => {
+                    const reelId = videos[currentVideoIndex]?.id;
+                    setVideos(prevVideos =>
+                        prevVideos.map(video =>
+                            video.id === reelId
+                                ? { ...video, commentCount: Math.max((video.commentCount || 0) + delta, 0) }
+                                : video
+                        )
+                    );
+                }}
             />
             {isPlaylistModalOpen && (
                 <AddToPlaylistModal
@@ -3,6 +3,7 @@ import { useParams } from 'react-router-dom';
 import { useTranslation } from 'react-i18next'; // Import i18n
 import NavigationPanel from '../components/NavigationPanel.jsx';
 import ReelPreview from '../components/ReelPreview.jsx';
+import { pickRendition } from '../utils/imageRenditions';
 import PlaylistCard from '../components/PlaylistCard.jsx';
 import EditProfileModal from '../components/modals/EditProfileModal.jsx';
 import EditPlaylistModal from '../components/modals/EditPlaylistModal.jsx';
@@ -272,7 +273,7 @@ export default function ProfilePage({
                 <div className="max-w-4xl mx-auto p-4 sm:p-6 md:p-8">
                     <header className="flex flex-col sm:flex-row items-center gap-6 mb-8">
                         <img
-                            src={profile.profilePictureUrl || `https://ui-avatars.com/api/?name=${profile.username}&background=222&color=fff&size=128`}
+                            src={pickRendition(profile.profilePictureRenditions, 256, profile.profilePictureUrl) || `https://ui-avatars.com/api/?name=${profile.username}&background=222&color=fff&size=128`}
                             alt="Profile"
                             className="w-24 h-24 sm:w-32 sm:h-32 rounded-full object-cover border-2 border-gray-700"
                         />
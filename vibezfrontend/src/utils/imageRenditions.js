@@ -0,0 +1,24 @@
+// Renditions come from the backend as { "64.jpg": url, "64.webp": url, "256.jpg": url, ... }.
+const renditionWidths = (renditions) =>
+    [...new Set(Object.keys(renditions || {}).map((name) => parseInt(name, 10)))]
+        .filter((width) => !Number.isNaN(width))
+        .sort((a, b) => a - b);
+
+const renditionUrl = (renditions, width) => renditions[`${width}.webp`] || renditions[`${width}.jpg`];
+
+// Smallest rendition at least `width` px wide (WebP first), or the fallback for images uploaded before renditions existed.
+export const pickRendition = (renditions, width, fallback) => {
+    const widths = renditionWidths(renditions);
+    if (widths.length === 0) {
+        return fallback;
+    }
+    const match = widths.find((candidate) => candidate >= width) ?? widths[widths.length - 1];
+    return renditionUrl(renditions, match);
+};
+
+export const renditionSrcSet = (renditions) => {
+    const srcSet = renditionWidths(renditions)
+        .map((width) => `${renditionUrl(renditions, width)} ${width}w`)
+        .join(', ');
+    return srcSet || undefined;
+};